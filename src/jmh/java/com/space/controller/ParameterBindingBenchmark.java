@@ -0,0 +1,97 @@
+package com.space.controller;
+
+import com.space.config.DbRequestExecutor;
+import com.space.config.WebConfig;
+import com.space.model.Ship;
+import com.space.repository.ShipFilter;
+import com.space.service.ShipService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Dispatch of GET /rest/ships through {@link ShipRestController} with a stubbed service, so the
+ * measured time is request parameter binding into {@link ShipFilter} and the handler invocation,
+ * including the hand-off to the DB request executor.
+ * Run with {@code mvn -Pjmh test-compile exec:exec -Djmh.args="ParameterBindingBenchmark"};
+ * results are written to {@code target/jmh-result.json}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParameterBindingBenchmark {
+    private MockMvc mockMvc;
+    private DbRequestExecutor dbRequestExecutor;
+
+    @Setup
+    public void setup() {
+        ShipService shipService = new ShipService(null, null, null, null, null, null, null, null, 1000, 100, 10000, 3019) {
+            @Override
+            public List<Ship> getShipsByFilters(ShipFilter filter, Pageable pageable) {
+                return new ArrayList<>();
+            }
+        };
+        dbRequestExecutor = new DbRequestExecutor(1, 1000, 10000);
+        List<HttpMessageConverter<?>> converters = new ArrayList<>();
+        new WebConfig().configureMessageConverters(converters);
+        mockMvc = MockMvcBuilders.standaloneSetup(new ShipRestController(shipService, dbRequestExecutor, null))
+                .setMessageConverters(converters.toArray(new HttpMessageConverter[0]))
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        dbRequestExecutor.destroy();
+    }
+
+    @Benchmark
+    public Object noFilters() throws Exception {
+        return await(mockMvc.perform(get("/rest/ships")).andReturn());
+    }
+
+    @Benchmark
+    public Object allFilters() throws Exception {
+        return await(mockMvc.perform(get("/rest/ships")
+                .param("name", "Orion")
+                .param("planet", "Mars")
+                .param("shipType", "MERCHANT")
+                .param("after", "26192246400000")
+                .param("before", "33134659200000")
+                .param("isUsed", "true")
+                .param("minSpeed", "0.1")
+                .param("maxSpeed", "0.9")
+                .param("minCrewSize", "10")
+                .param("maxCrewSize", "5000")
+                .param("minRating", "0.5")
+                .param("maxRating", "10")
+                .param("order", "SPEED")
+                .param("pageNumber", "1")
+                .param("pageSize", "10")).andReturn());
+    }
+
+    private static Object await(MvcResult result) {
+        return result.getAsyncResult(10000);
+    }
+}
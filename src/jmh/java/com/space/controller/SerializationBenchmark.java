@@ -0,0 +1,74 @@
+package com.space.controller;
+
+import com.space.config.WebConfig;
+import com.space.model.Ship;
+import com.space.model.ShipType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization of a {@code List<Ship>} page through the Jackson converter configured in {@link WebConfig}.
+ * Run with {@code mvn -Pjmh test-compile exec:exec -Djmh.args="SerializationBenchmark"};
+ * results are written to {@code target/jmh-result.json}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+    @Param({"3", "100", "1000"})
+    private int pageSize;
+
+    private MappingJackson2HttpMessageConverter converter;
+    private List<Ship> ships;
+
+    @Setup
+    public void setup() {
+        List<HttpMessageConverter<?>> converters = new ArrayList<>();
+        new WebConfig().configureMessageConverters(converters);
+        converter = (MappingJackson2HttpMessageConverter) converters.get(0);
+
+        ships = new ArrayList<>();
+        for (int i = 0; i < pageSize; i++) {
+            Ship ship = new Ship();
+            ship.setId((long) i);
+            ship.setName("Ship " + i);
+            ship.setPlanet("Mars");
+            ship.setShipType(ShipType.values()[i % ShipType.values().length]);
+            ship.setProdDate(new Date(32998274577071L));
+            ship.setUsed(i % 2 == 0);
+            ship.setSpeed(0.82);
+            ship.setCrewSize(617);
+            ship.setRating(1.31);
+            ships.add(ship);
+        }
+    }
+
+    @Benchmark
+    public byte[] writeShips() throws IOException {
+        MockHttpOutputMessage message = new MockHttpOutputMessage();
+        converter.write(ships, MediaType.APPLICATION_JSON_UTF8, message);
+        return message.getBodyAsBytes();
+    }
+}
@@ -0,0 +1,66 @@
+package com.space.service;
+
+import com.space.model.Ship;
+import com.space.model.ShipType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validation and rating computation done for every created or updated ship.
+ * Run with {@code mvn -Pjmh test-compile exec:exec -Djmh.args="ShipServiceBenchmark"};
+ * results are written to {@code target/jmh-result.json}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ShipServiceBenchmark {
+    private ShipService shipService;
+    private Ship validShip;
+    private Ship invalidShip;
+
+    @Setup
+    public void setup() {
+        shipService = new ShipService(null, null, null, null, null, null, null, null, 1000, 100, 10000, 3019);
+
+        validShip = new Ship();
+        validShip.setName("Orion III");
+        validShip.setPlanet("Mars");
+        validShip.setShipType(ShipType.MERCHANT);
+        validShip.setProdDate(new Date(32998274577071L));
+        validShip.setUsed(true);
+        validShip.setSpeed(0.82);
+        validShip.setCrewSize(617);
+
+        invalidShip = new Ship(validShip);
+        invalidShip.setCrewSize(10000);
+    }
+
+    @Benchmark
+    public boolean isValidByParamsValid() {
+        return shipService.isValidByParams(validShip);
+    }
+
+    @Benchmark
+    public boolean isValidByParamsInvalid() {
+        return shipService.isValidByParams(invalidShip);
+    }
+
+    @Benchmark
+    public Double computeRating() {
+        return shipService.computeRating(validShip);
+    }
+}
@@ -1,12 +1,19 @@
 package com.space.config;
 
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
+import org.springframework.context.annotation.PropertySource;
+import org.springframework.core.env.Environment;
 import org.springframework.dao.annotation.PersistenceExceptionTranslationPostProcessor;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
-import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
 import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
 import org.springframework.orm.jpa.JpaTransactionManager;
 import org.springframework.orm.jpa.JpaVendorAdapter;
@@ -17,7 +24,12 @@ import org.springframework.transaction.annotation.EnableTransactionManagement;
 
 import javax.persistence.EntityManagerFactory;
 import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.Properties;
+import java.util.concurrent.TimeUnit;
 
 import static org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType.H2;
 
@@ -25,8 +37,12 @@ import static org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType.
 @EnableTransactionManagement
 @ComponentScan("com.space.service")
 @EnableJpaRepositories(basePackages = "com.space.repository")
+@PropertySource(value = "classpath:cosmoport.properties", ignoreResourceNotFound = true)
 public class AppConfig {
 
+    @Autowired
+    private Environment env;
+
     @Bean
     public LocalContainerEntityManagerFactoryBean entityManagerFactory() {
         LocalContainerEntityManagerFactoryBean em = new LocalContainerEntityManagerFactoryBean();
@@ -43,25 +59,75 @@ public class AppConfig {
     @Profile("prod")
     @Bean
     public DataSource dataSource() {
-        DriverManagerDataSource dataSource = new DriverManagerDataSource();
-        dataSource.setDriverClassName("com.mysql.cj.jdbc.Driver");
-        dataSource.setUrl("jdbc:mysql://localhost:3306/cosmoport?serverTimezone=UTC");
-        dataSource.setUsername("root");
-        dataSource.setPassword("root");
-        return dataSource;
+        HikariConfig config = poolConfig();
+        config.setDriverClassName("com.mysql.cj.jdbc.Driver");
+        config.setJdbcUrl(env.getProperty("cosmoport.datasource.url", "jdbc:mysql://localhost:3306/cosmoport?serverTimezone=UTC"));
+        config.setUsername(env.getProperty("cosmoport.datasource.username", "root"));
+        config.setPassword(env.getProperty("cosmoport.datasource.password", "root"));
+        config.addDataSourceProperty("cachePrepStmts", env.getProperty("cosmoport.datasource.cache-prep-stmts", "true"));
+        config.addDataSourceProperty("prepStmtCacheSize", env.getProperty("cosmoport.datasource.prep-stmt-cache-size", "250"));
+        config.addDataSourceProperty("prepStmtCacheSqlLimit", env.getProperty("cosmoport.datasource.prep-stmt-cache-sql-limit", "2048"));
+        config.addDataSourceProperty("useServerPrepStmts", env.getProperty("cosmoport.datasource.use-server-prep-stmts", "true"));
+        config.addDataSourceProperty("useCursorFetch", "true");
+        config.addDataSourceProperty("rewriteBatchedStatements", "true");
+        HikariDataSource dataSource = new HikariDataSource(config);
+
+        if (env.getProperty("cosmoport.datasource.migrate", Boolean.class, true)) {
+            migrate(dataSource);
+        }
+        return slowQueryLog().wrap(dataSource);
     }
 
     @Profile("dev")
     @Bean(name = "dataSource")
     public DataSource dataSourceForTests() {
 
-        return new EmbeddedDatabaseBuilder()
+        EmbeddedDatabase database = new EmbeddedDatabaseBuilder()
                 .generateUniqueName(true)
                 .setType(H2)
                 .setScriptEncoding("UTF-8")
                 .ignoreFailedDrops(true)
                 .addScript("test.sql")
                 .build();
+
+        if (!env.getProperty("cosmoport.datasource.dev-pooled", Boolean.class, false)) {
+            return slowQueryLog().wrap(database);
+        }
+        HikariConfig config = poolConfig();
+        config.setDataSource(database);
+        return slowQueryLog().wrap(new HikariDataSource(config));
+    }
+
+    @Bean
+    public ConnectionPoolMetrics connectionPoolMetrics() {
+        return new ConnectionPoolMetrics();
+    }
+
+    @Bean
+    public LatencyMetrics latencyMetrics() {
+        return new LatencyMetrics();
+    }
+
+    @Bean
+    public SlowQueryLog slowQueryLog() {
+        return new SlowQueryLog(
+                env.getProperty("cosmoport.slow-query.threshold-ms", Long.class, 500L),
+                env.getProperty("cosmoport.slow-query.top-size", Integer.class, 20),
+                TimeUnit.MINUTES.toMillis(env.getProperty("cosmoport.slow-query.window-minutes", Long.class, 60L)));
+    }
+
+    @Bean
+    public DbRequestExecutor dbRequestExecutor() {
+        int poolSize = env.getProperty("cosmoport.datasource.pool.max-size", Integer.class, 20);
+        return new DbRequestExecutor(
+                env.getProperty("cosmoport.async.threads", Integer.class, poolSize),
+                env.getProperty("cosmoport.async.queue-capacity", Integer.class, 200),
+                env.getProperty("cosmoport.async.timeout-ms", Long.class, 10000L));
+    }
+
+    @Bean
+    public static RepositoryMetricsPostProcessor repositoryMetricsPostProcessor(ObjectProvider<LatencyMetrics> latencyMetrics) {
+        return new RepositoryMetricsPostProcessor(latencyMetrics);
     }
 
     @Bean
@@ -77,6 +143,46 @@ public class AppConfig {
         return new PersistenceExceptionTranslationPostProcessor();
     }
 
+    // A schema without flyway history was created by init.sql (V1). One that already carries the
+    // V2 indexes is baselined at V2, since MySQL has no CREATE INDEX IF NOT EXISTS.
+    public static void migrate(DataSource dataSource) {
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration")
+                .baselineOnMigrate(true)
+                .baselineVersion(hasIndex(dataSource, "ix_ship_type_prod_date") ? "2" : "1")
+                .load()
+                .migrate();
+    }
+
+    private static boolean hasIndex(DataSource dataSource, String indexName) {
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            for (String table : new String[]{"ship", "SHIP"}) {
+                try (ResultSet indexes = metaData.getIndexInfo(connection.getCatalog(), null, table, false, false)) {
+                    while (indexes.next()) {
+                        if (indexName.equalsIgnoreCase(indexes.getString("INDEX_NAME"))) {
+                            return true;
+                        }
+                    }
+                }
+            }
+            return false;
+        } catch (SQLException e) {
+            throw new IllegalStateException("Cannot inspect ship indexes", e);
+        }
+    }
+
+    private HikariConfig poolConfig() {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("cosmoport");
+        config.setMinimumIdle(env.getProperty("cosmoport.datasource.pool.min-idle", Integer.class, 5));
+        config.setMaximumPoolSize(env.getProperty("cosmoport.datasource.pool.max-size", Integer.class, 20));
+        config.setConnectionTimeout(env.getProperty("cosmoport.datasource.pool.connection-timeout-ms", Long.class, 3000L));
+        config.setMetricsTrackerFactory(connectionPoolMetrics());
+        return config;
+    }
+
     private Properties additionalProperties() {
         Properties properties = new Properties();
         properties.setProperty("hibernate.dialect", "org.hibernate.dialect.MySQL5Dialect");
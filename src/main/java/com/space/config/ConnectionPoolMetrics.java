@@ -0,0 +1,74 @@
+package com.space.config;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+public class ConnectionPoolMetrics implements MetricsTrackerFactory {
+    private volatile String poolName;
+    private volatile PoolStats poolStats;
+
+    private final LongAdder acquired = new LongAdder();
+    private final LongAdder acquireNanos = new LongAdder();
+    private final AtomicLong maxAcquireNanos = new AtomicLong();
+    private final LongAdder timeouts = new LongAdder();
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        this.poolName = poolName;
+        this.poolStats = poolStats;
+        return new IMetricsTracker() {
+            @Override
+            public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+                acquired.increment();
+                acquireNanos.add(elapsedAcquiredNanos);
+                maxAcquireNanos.accumulateAndGet(elapsedAcquiredNanos, Math::max);
+            }
+
+            @Override
+            public void recordConnectionTimeout() {
+                timeouts.increment();
+            }
+        };
+    }
+
+    public Snapshot snapshot() {
+        Snapshot snapshot = new Snapshot();
+        PoolStats stats = poolStats;
+        snapshot.pooled = stats != null;
+        snapshot.poolName = poolName;
+        if (stats != null) {
+            snapshot.active = stats.getActiveConnections();
+            snapshot.idle = stats.getIdleConnections();
+            snapshot.total = stats.getTotalConnections();
+            snapshot.waiting = stats.getPendingThreads();
+            snapshot.minSize = stats.getMinConnections();
+            snapshot.maxSize = stats.getMaxConnections();
+        }
+        long count = acquired.sum();
+        snapshot.acquired = count;
+        snapshot.timeouts = timeouts.sum();
+        snapshot.avgAcquireMicros = count == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(acquireNanos.sum() / count);
+        snapshot.maxAcquireMicros = TimeUnit.NANOSECONDS.toMicros(maxAcquireNanos.get());
+        return snapshot;
+    }
+
+    public static class Snapshot {
+        private boolean pooled;
+        private String poolName;
+        private int active;
+        private int idle;
+        private int total;
+        private int waiting;
+        private int minSize;
+        private int maxSize;
+        private long acquired;
+        private long timeouts;
+        private long avgAcquireMicros;
+        private long maxAcquireMicros;
+    }
+}
@@ -0,0 +1,131 @@
+package com.space.config;
+
+import com.space.exceptions.ServiceUnavailableException;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+public class DbRequestExecutor implements Executor, DisposableBean {
+    private final ThreadPoolExecutor executor;
+    private final int queueCapacity;
+    private final long timeoutMillis;
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder cancelled = new LongAdder();
+    private final LongAdder queueWaitNanos = new LongAdder();
+    private final LongAdder started = new LongAdder();
+    private final AtomicLong maxQueueWaitNanos = new AtomicLong();
+    private final AtomicInteger maxQueued = new AtomicInteger();
+
+    public DbRequestExecutor(int threads, int queueCapacity, long timeoutMillis) {
+        AtomicInteger sequence = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "db-request-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (runnable, pool) -> {
+                    rejected.increment();
+                    throw new ServiceUnavailableException();
+                });
+        this.queueCapacity = queueCapacity;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    // Only a task still in the queue is cancelled on timeout; one already running finishes, so a timed-out write may commit.
+    public <T> DeferredResult<T> submit(Supplier<T> work) {
+        DeferredResult<T> result = new DeferredResult<>(timeoutMillis);
+        AtomicBoolean claimed = new AtomicBoolean();
+        CompletableFuture<T> future = CompletableFuture.supplyAsync(() -> {
+            if (!claimed.compareAndSet(false, true)) {
+                throw new CancellationException();
+            }
+            return work.get();
+        }, this);
+        future.whenComplete((value, ex) -> {
+            if (ex == null) {
+                result.setResult(value);
+            } else if (!future.isCancelled()) {
+                result.setErrorResult(ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex);
+            }
+        });
+        result.onTimeout(() -> {
+            timeouts.increment();
+            if (claimed.compareAndSet(false, true)) {
+                future.cancel(false);
+                cancelled.increment();
+            }
+        });
+        return result;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        long enqueuedAt = System.nanoTime();
+        executor.execute(() -> {
+            long waited = System.nanoTime() - enqueuedAt;
+            started.increment();
+            queueWaitNanos.add(waited);
+            maxQueueWaitNanos.accumulateAndGet(waited, Math::max);
+            command.run();
+        });
+        submitted.increment();
+        maxQueued.accumulateAndGet(executor.getQueue().size(), Math::max);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    public Snapshot snapshot() {
+        Snapshot snapshot = new Snapshot();
+        snapshot.threads = executor.getMaximumPoolSize();
+        snapshot.active = executor.getActiveCount();
+        snapshot.queued = executor.getQueue().size();
+        snapshot.maxQueued = maxQueued.get();
+        snapshot.queueCapacity = queueCapacity;
+        snapshot.timeoutMillis = timeoutMillis;
+        snapshot.submitted = submitted.sum();
+        snapshot.completed = executor.getCompletedTaskCount();
+        snapshot.rejected = rejected.sum();
+        snapshot.timeouts = timeouts.sum();
+        snapshot.cancelled = cancelled.sum();
+        long count = started.sum();
+        snapshot.avgQueueWaitMicros = count == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(queueWaitNanos.sum() / count);
+        snapshot.maxQueueWaitMicros = TimeUnit.NANOSECONDS.toMicros(maxQueueWaitNanos.get());
+        return snapshot;
+    }
+
+    public static class Snapshot {
+        private int threads;
+        private int active;
+        private int queued;
+        private int maxQueued;
+        private int queueCapacity;
+        private long timeoutMillis;
+        private long submitted;
+        private long completed;
+        private long rejected;
+        private long timeouts;
+        private long cancelled;
+        private long avgQueueWaitMicros;
+        private long maxQueueWaitMicros;
+    }
+}
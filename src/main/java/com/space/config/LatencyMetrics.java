@@ -0,0 +1,176 @@
+package com.space.config;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+public class LatencyMetrics {
+    public enum Group {
+        ENDPOINT("cosmoport_http_request", "endpoint"),
+        REPOSITORY("cosmoport_repository_call", "method");
+
+        private final String metric;
+        private final String label;
+
+        Group(String metric, String label) {
+            this.metric = metric;
+            this.label = label;
+        }
+    }
+
+    private static final long[] BUCKET_MICROS = {250, 500, 1000, 2500, 5000, 10000, 25000, 50000, 100000,
+            250000, 500000, 1000000, 2500000, 5000000, 10000000};
+
+    private final Map<Group, ConcurrentMap<String, Timer>> timers = new ConcurrentHashMap<>();
+
+    public LatencyMetrics() {
+        for (Group group : Group.values()) {
+            timers.put(group, new ConcurrentHashMap<>());
+        }
+    }
+
+    public void record(Group group, String name, long nanos, boolean error) {
+        ConcurrentMap<String, Timer> groupTimers = timers.get(group);
+        Timer timer = groupTimers.get(name);
+        if (timer == null) {
+            timer = groupTimers.computeIfAbsent(name, key -> new Timer());
+        }
+        timer.record(nanos, error);
+    }
+
+    public Map<Group, Map<String, Snapshot>> snapshot() {
+        Map<Group, Map<String, Snapshot>> snapshot = new TreeMap<>();
+        for (Group group : Group.values()) {
+            Map<String, Snapshot> groupSnapshot = new TreeMap<>();
+            timers.get(group).forEach((name, timer) -> groupSnapshot.put(name, timer.snapshot()));
+            snapshot.put(group, groupSnapshot);
+        }
+        return snapshot;
+    }
+
+    public void writePrometheus(Writer writer) throws IOException {
+        for (Map.Entry<Group, Map<String, Snapshot>> entry : snapshot().entrySet()) {
+            Group group = entry.getKey();
+            String seconds = group.metric + "_seconds";
+            writer.write("# TYPE " + seconds + " histogram\n");
+            for (Map.Entry<String, Snapshot> timer : entry.getValue().entrySet()) {
+                String label = group.label + "=\"" + escape(timer.getKey()) + "\"";
+                Snapshot snapshot = timer.getValue();
+                long cumulative = 0;
+                for (int i = 0; i < BUCKET_MICROS.length; i++) {
+                    cumulative += snapshot.buckets[i];
+                    writer.write(seconds + "_bucket{" + label + ",le=\"" + toSeconds(BUCKET_MICROS[i]) + "\"} "
+                            + cumulative + "\n");
+                }
+                writer.write(seconds + "_bucket{" + label + ",le=\"+Inf\"} " + snapshot.count + "\n");
+                writer.write(seconds + "_sum{" + label + "} " + toSeconds(snapshot.totalMicros) + "\n");
+                writer.write(seconds + "_count{" + label + "} " + snapshot.count + "\n");
+            }
+            String errors = group.metric + "_errors_total";
+            writer.write("# TYPE " + errors + " counter\n");
+            for (Map.Entry<String, Snapshot> timer : entry.getValue().entrySet()) {
+                writer.write(errors + "{" + group.label + "=\"" + escape(timer.getKey()) + "\"} "
+                        + timer.getValue().errors + "\n");
+            }
+        }
+    }
+
+    private static String toSeconds(long micros) {
+        return String.format(Locale.ROOT, "%.6f", micros / 1e6);
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static int bucket(long micros) {
+        int low = 0;
+        int high = BUCKET_MICROS.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (BUCKET_MICROS[middle] < micros) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static class Timer {
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final LongAdder[] buckets = new LongAdder[BUCKET_MICROS.length + 1];
+
+        Timer() {
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        void record(long nanos, boolean error) {
+            if (error) {
+                errors.increment();
+            }
+            totalNanos.add(nanos);
+            if (nanos > maxNanos.get()) {
+                maxNanos.accumulateAndGet(nanos, Math::max);
+            }
+            buckets[bucket(TimeUnit.NANOSECONDS.toMicros(nanos))].increment();
+        }
+
+        Snapshot snapshot() {
+            Snapshot snapshot = new Snapshot();
+            snapshot.buckets = new long[buckets.length];
+            long total = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                snapshot.buckets[i] = buckets[i].sum();
+                total += snapshot.buckets[i];
+            }
+            snapshot.count = total;
+            snapshot.errors = errors.sum();
+            snapshot.totalMicros = TimeUnit.NANOSECONDS.toMicros(totalNanos.sum());
+            snapshot.avgMicros = total == 0 ? 0 : snapshot.totalMicros / total;
+            snapshot.maxMicros = TimeUnit.NANOSECONDS.toMicros(maxNanos.get());
+            snapshot.p50Micros = percentile(snapshot, 50);
+            snapshot.p95Micros = percentile(snapshot, 95);
+            snapshot.p99Micros = percentile(snapshot, 99);
+            return snapshot;
+        }
+
+        private static long percentile(Snapshot snapshot, int percentile) {
+            if (snapshot.count == 0) {
+                return 0;
+            }
+            long rank = (snapshot.count * percentile + 99) / 100;
+            long cumulative = 0;
+            for (int i = 0; i < BUCKET_MICROS.length; i++) {
+                cumulative += snapshot.buckets[i];
+                if (cumulative >= rank) {
+                    return Math.min(BUCKET_MICROS[i], snapshot.maxMicros);
+                }
+            }
+            return snapshot.maxMicros;
+        }
+    }
+
+    public static class Snapshot {
+        private long count;
+        private long errors;
+        private long totalMicros;
+        private long avgMicros;
+        private long maxMicros;
+        private long p50Micros;
+        private long p95Micros;
+        private long p99Micros;
+        private long[] buckets;
+    }
+}
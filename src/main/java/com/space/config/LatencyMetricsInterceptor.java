@@ -0,0 +1,36 @@
+package com.space.config;
+
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+public class LatencyMetricsInterceptor implements HandlerInterceptor {
+    private static final String START_ATTRIBUTE = LatencyMetricsInterceptor.class.getName() + ".start";
+
+    private final LatencyMetrics latencyMetrics;
+
+    public LatencyMetricsInterceptor(LatencyMetrics latencyMetrics) {
+        this.latencyMetrics = latencyMetrics;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getAttribute(START_ATTRIBUTE) == null) {
+            request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Object start = request.getAttribute(START_ATTRIBUTE);
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (start == null || pattern == null) {
+            return;
+        }
+        latencyMetrics.record(LatencyMetrics.Group.ENDPOINT, request.getMethod() + " " + pattern,
+                System.nanoTime() - (Long) start, ex != null || response.getStatus() >= 400);
+    }
+}
@@ -0,0 +1,49 @@
+package com.space.config;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.Repository;
+
+public class RepositoryMetricsPostProcessor implements BeanPostProcessor {
+    private final ObjectProvider<LatencyMetrics> latencyMetrics;
+
+    public RepositoryMetricsPostProcessor(ObjectProvider<LatencyMetrics> latencyMetrics) {
+        this.latencyMetrics = latencyMetrics;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof Repository)) {
+            return bean;
+        }
+        String repositoryName = repositoryName(bean);
+        LatencyMetrics metrics = latencyMetrics.getObject();
+        ProxyFactory factory = new ProxyFactory(bean);
+        factory.addAdvice((MethodInterceptor) invocation -> {
+            String method = repositoryName + "." + invocation.getMethod().getName();
+            SlowQueryLog.Origin origin = SlowQueryLog.enter(method, invocation.getArguments());
+            long start = System.nanoTime();
+            boolean error = true;
+            try {
+                Object result = invocation.proceed();
+                error = false;
+                return result;
+            } finally {
+                metrics.record(LatencyMetrics.Group.REPOSITORY, method, System.nanoTime() - start, error);
+                SlowQueryLog.exit(origin);
+            }
+        });
+        return factory.getProxy();
+    }
+
+    private static String repositoryName(Object bean) {
+        for (Class<?> type : bean.getClass().getInterfaces()) {
+            if (Repository.class.isAssignableFrom(type) && !type.getName().startsWith("org.springframework.")) {
+                return type.getSimpleName();
+            }
+        }
+        return bean.getClass().getSimpleName();
+    }
+}
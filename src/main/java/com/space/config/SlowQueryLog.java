@@ -0,0 +1,379 @@
+package com.space.config;
+
+import com.space.repository.ShipFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+public class SlowQueryLog {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SlowQueryLog.class);
+    private static final ThreadLocal<Origin> ORIGIN = new ThreadLocal<>();
+    private static final int MAX_PARAMETERS = 32;
+
+    private volatile long thresholdNanos;
+    private final int topSize;
+    private final long windowMillis;
+    private final LongAdder slowQueries = new LongAdder();
+    private final List<Entry> top = new ArrayList<>();
+
+    public SlowQueryLog(long thresholdMillis, int topSize, long windowMillis) {
+        setThresholdMillis(thresholdMillis);
+        this.topSize = topSize;
+        this.windowMillis = windowMillis;
+    }
+
+    public static Origin enter(String method, Object[] args) {
+        Origin previous = ORIGIN.get();
+        ORIGIN.set(new Origin(method, args));
+        return previous;
+    }
+
+    public static void exit(Origin previous) {
+        if (previous == null) {
+            ORIGIN.remove();
+        } else {
+            ORIGIN.set(previous);
+        }
+    }
+
+    public long getThresholdMillis() {
+        return thresholdNanos < 0 ? -1 : TimeUnit.NANOSECONDS.toMillis(thresholdNanos);
+    }
+
+    public void setThresholdMillis(long thresholdMillis) {
+        this.thresholdNanos = thresholdMillis < 0 ? -1 : TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+    }
+
+    // a log that starts disabled never sees a connection, so a later threshold change has no effect
+    public DataSource wrap(DataSource dataSource) {
+        return thresholdNanos < 0 ? dataSource : new LoggingDataSource(dataSource);
+    }
+
+    public Stats stats() {
+        Stats stats = new Stats();
+        stats.thresholdMillis = getThresholdMillis();
+        stats.slowQueries = slowQueries.sum();
+        synchronized (top) {
+            evictExpired(System.currentTimeMillis());
+            stats.top = new ArrayList<>(top);
+        }
+        return stats;
+    }
+
+    public void clear() {
+        synchronized (top) {
+            top.clear();
+        }
+    }
+
+    private void complete(String sql, List<String> parameters, int batchSize, long rows, long nanos,
+                          Origin origin) {
+        long threshold = thresholdNanos;
+        if (threshold < 0 || nanos < threshold) {
+            return;
+        }
+        Entry entry = new Entry();
+        entry.timestamp = System.currentTimeMillis();
+        entry.elapsedMicros = TimeUnit.NANOSECONDS.toMicros(nanos);
+        entry.rows = rows;
+        entry.batchSize = batchSize;
+        entry.origin = origin == null ? null : origin.toString();
+        entry.sql = sql;
+        entry.parameters = parameters;
+        slowQueries.increment();
+        LOGGER.warn("Slow query: {} us, {} rows, origin {}: {} {}",
+                entry.elapsedMicros, rows, entry.origin, sql, entry.parameters);
+
+        synchronized (top) {
+            evictExpired(entry.timestamp);
+            top.add(entry);
+            top.sort(Comparator.comparingLong((Entry e) -> e.elapsedMicros).reversed());
+            if (top.size() > topSize) {
+                top.remove(top.size() - 1);
+            }
+        }
+    }
+
+    private void evictExpired(long now) {
+        top.removeIf(entry -> entry.timestamp < now - windowMillis);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(SlowQueryLog.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    private class LoggingDataSource extends DelegatingDataSource implements Closeable {
+        LoggingDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return proxy(Connection.class, new ConnectionHandler(super.getConnection()));
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return proxy(Connection.class, new ConnectionHandler(super.getConnection(username, password)));
+        }
+
+        @Override
+        public void close() throws IOException {
+            DataSource target = obtainTargetDataSource();
+            if (target instanceof EmbeddedDatabase) {
+                ((EmbeddedDatabase) target).shutdown();
+            } else if (target instanceof Closeable) {
+                ((Closeable) target).close();
+            }
+        }
+    }
+
+    private class ConnectionHandler implements InvocationHandler {
+        private final Connection target;
+
+        ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = SlowQueryLog.invoke(method, target, args);
+            if (method.getName().equals("prepareStatement")) {
+                return proxy(PreparedStatement.class, new StatementHandler((Statement) result, (String) args[0]));
+            }
+            if (method.getName().equals("createStatement")) {
+                return proxy(Statement.class, new StatementHandler((Statement) result, null));
+            }
+            return result;
+        }
+    }
+
+    private class StatementHandler implements InvocationHandler {
+        private final Statement target;
+        private final String sql;
+        private final Object[] parameters = new Object[MAX_PARAMETERS];
+        private int parameterCount;
+        private boolean truncated;
+        private int batchSize;
+
+        StatementHandler(Statement target, String sql) {
+            this.target = target;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                if (thresholdNanos >= 0) {
+                    record((Integer) args[0], name.equals("setNull") ? null : args[1]);
+                }
+            } else if (name.equals("clearParameters")) {
+                Arrays.fill(parameters, 0, parameterCount, null);
+                parameterCount = 0;
+                truncated = false;
+            } else if (name.equals("addBatch")) {
+                batchSize++;
+            } else if (name.equals("clearBatch")) {
+                batchSize = 0;
+            } else if (name.startsWith("execute")) {
+                return execute(method, args);
+            }
+            return SlowQueryLog.invoke(method, target, args);
+        }
+
+        private Object execute(Method method, Object[] args) throws Throwable {
+            String statementSql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : sql;
+            Origin origin = ORIGIN.get();
+            long start = System.nanoTime();
+            Object result = SlowQueryLog.invoke(method, target, args);
+            long nanos = System.nanoTime() - start;
+            int batch = batchSize;
+            if (method.getName().startsWith("executeBatch") || method.getName().startsWith("executeLargeBatch")) {
+                batchSize = 0;
+            }
+            long threshold = thresholdNanos;
+            if (threshold < 0 || nanos < threshold) {
+                return result;
+            }
+            if (result instanceof ResultSet) {
+                return proxy(ResultSet.class, new ResultSetHandler((ResultSet) result, statementSql,
+                        parameters(), nanos, origin));
+            }
+            complete(statementSql, parameters(), batch, rows(result), nanos, origin);
+            return result;
+        }
+
+        private void record(int index, Object value) {
+            if (index < 1 || index > MAX_PARAMETERS) {
+                truncated = true;
+                return;
+            }
+            parameters[index - 1] = value;
+            parameterCount = Math.max(parameterCount, index);
+        }
+
+        private List<String> parameters() {
+            List<String> values = new ArrayList<>(parameterCount + 1);
+            for (int i = 0; i < parameterCount; i++) {
+                values.add(String.valueOf(parameters[i]));
+            }
+            if (truncated) {
+                values.add("...");
+            }
+            return values;
+        }
+
+        private long rows(Object result) {
+            if (result instanceof Number) {
+                return ((Number) result).longValue();
+            }
+            long rows = 0;
+            if (result instanceof int[]) {
+                for (int count : (int[]) result) {
+                    rows += Math.max(count, 0);
+                }
+            } else if (result instanceof long[]) {
+                for (long count : (long[]) result) {
+                    rows += Math.max(count, 0);
+                }
+            } else {
+                return -1;
+            }
+            return rows;
+        }
+    }
+
+    // only slow statements get here; the first next() is timed too since cursor fetches defer the query to it
+    private class ResultSetHandler implements InvocationHandler {
+        private final ResultSet target;
+        private final String sql;
+        private final List<String> parameters;
+        private final Origin origin;
+        private long nanos;
+        private long rows;
+        private boolean completed;
+
+        ResultSetHandler(ResultSet target, String sql, List<String> parameters, long nanos, Origin origin) {
+            this.target = target;
+            this.sql = sql;
+            this.parameters = parameters;
+            this.nanos = nanos;
+            this.origin = origin;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.equals("next")) {
+                long start = System.nanoTime();
+                Object result = SlowQueryLog.invoke(method, target, args);
+                if (rows == 0) {
+                    nanos += System.nanoTime() - start;
+                }
+                if ((Boolean) result) {
+                    rows++;
+                } else {
+                    complete();
+                }
+                return result;
+            }
+            if (name.equals("close")) {
+                complete();
+            }
+            return SlowQueryLog.invoke(method, target, args);
+        }
+
+        private void complete() {
+            if (!completed) {
+                completed = true;
+                SlowQueryLog.this.complete(sql, parameters, 0, rows, nanos, origin);
+            }
+        }
+    }
+
+    public static class Origin {
+        private final String method;
+        private final Object[] args;
+
+        Origin(String method, Object[] args) {
+            this.method = method;
+            this.args = args;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder(method).append('(');
+            for (int i = 0; args != null && i < args.length; i++) {
+                if (i > 0) {
+                    sb.append(", ");
+                }
+                sb.append(describe(args[i]));
+            }
+            return sb.append(')').toString();
+        }
+
+        private static String describe(Object arg) {
+            if (arg instanceof ShipFilter) {
+                return "filter[" + ((ShipFilter) arg).shape() + "]";
+            }
+            if (arg instanceof Pageable) {
+                Pageable pageable = (Pageable) arg;
+                return pageable.isPaged()
+                        ? "page=" + pageable.getPageNumber() + ",size=" + pageable.getPageSize() + ",sort=" + pageable.getSort()
+                        : "unpaged";
+            }
+            if (arg == null || arg instanceof CharSequence || arg instanceof Number || arg instanceof Enum
+                    || arg instanceof Boolean) {
+                return String.valueOf(arg);
+            }
+            return arg.getClass().getSimpleName();
+        }
+    }
+
+    public static class Stats {
+        private long thresholdMillis;
+        private long slowQueries;
+        private List<Entry> top;
+    }
+
+    public static class Entry {
+        private long timestamp;
+        private long elapsedMicros;
+        private long rows;
+        private int batchSize;
+        private String origin;
+        private String sql;
+        private List<String> parameters;
+    }
+}
@@ -0,0 +1,158 @@
+package com.space.controller;
+
+import com.space.config.ConnectionPoolMetrics;
+import com.space.config.DbRequestExecutor;
+import com.space.config.LatencyMetrics;
+import com.space.config.SlowQueryLog;
+import com.space.service.RatingRecalculation;
+import com.space.service.ShipCache;
+import com.space.service.ShipChangeFeed;
+import com.space.service.ShipColumnStore;
+import com.space.service.ShipCounters;
+import com.space.service.ShipQueryCache;
+import com.space.service.ShipService;
+import com.space.service.ShipTextIndex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Map;
+
+@RestController
+@RequestMapping("rest/admin")
+public class AdminRestController {
+    private final ConnectionPoolMetrics connectionPoolMetrics;
+    private final DbRequestExecutor dbRequestExecutor;
+    private final LatencyMetrics latencyMetrics;
+    private final SlowQueryLog slowQueryLog;
+    private final ShipService shipService;
+    private final ShipCache shipCache;
+    private final ShipQueryCache shipQueryCache;
+    private final ShipTextIndex shipTextIndex;
+    private final ShipColumnStore shipColumnStore;
+    private final ShipCounters shipCounters;
+    private final ShipChangeFeed shipChangeFeed;
+    private final RatingRecalculation ratingRecalculation;
+
+    @Autowired
+    public AdminRestController(ConnectionPoolMetrics connectionPoolMetrics, DbRequestExecutor dbRequestExecutor,
+                               LatencyMetrics latencyMetrics,
+                               SlowQueryLog slowQueryLog, ShipService shipService,
+                               ShipCache shipCache, ShipQueryCache shipQueryCache,
+                               ShipTextIndex shipTextIndex, ShipColumnStore shipColumnStore,
+                               ShipCounters shipCounters, ShipChangeFeed shipChangeFeed,
+                               RatingRecalculation ratingRecalculation) {
+        this.connectionPoolMetrics = connectionPoolMetrics;
+        this.dbRequestExecutor = dbRequestExecutor;
+        this.latencyMetrics = latencyMetrics;
+        this.slowQueryLog = slowQueryLog;
+        this.shipService = shipService;
+        this.shipCache = shipCache;
+        this.shipQueryCache = shipQueryCache;
+        this.shipTextIndex = shipTextIndex;
+        this.shipColumnStore = shipColumnStore;
+        this.shipCounters = shipCounters;
+        this.shipChangeFeed = shipChangeFeed;
+        this.ratingRecalculation = ratingRecalculation;
+    }
+
+    @GetMapping("/pool")
+    public ConnectionPoolMetrics.Snapshot getPoolStats() {
+        return connectionPoolMetrics.snapshot();
+    }
+
+    @GetMapping("/db-executor")
+    public DbRequestExecutor.Snapshot getDbExecutorStats() {
+        return dbRequestExecutor.snapshot();
+    }
+
+    @GetMapping("/metrics")
+    public Map<LatencyMetrics.Group, Map<String, LatencyMetrics.Snapshot>> getLatencyMetrics() {
+        return latencyMetrics.snapshot();
+    }
+
+    @GetMapping("/metrics/prometheus")
+    public void getPrometheusMetrics(HttpServletResponse response) throws IOException {
+        response.setContentType("text/plain; version=0.0.4; charset=utf-8");
+        latencyMetrics.writePrometheus(response.getWriter());
+    }
+
+    @GetMapping("/slow-queries")
+    public SlowQueryLog.Stats getSlowQueries() {
+        return slowQueryLog.stats();
+    }
+
+    @PostMapping("/slow-queries/threshold")
+    public SlowQueryLog.Stats setSlowQueryThreshold(@RequestParam long millis) {
+        slowQueryLog.setThresholdMillis(millis);
+        return slowQueryLog.stats();
+    }
+
+    @DeleteMapping("/slow-queries")
+    public void clearSlowQueries() {
+        slowQueryLog.clear();
+    }
+
+    @GetMapping("/cache")
+    public ShipCache.Stats getCacheStats() {
+        return shipCache.stats();
+    }
+
+    @GetMapping("/query-cache")
+    public ShipQueryCache.Stats getQueryCacheStats() {
+        return shipQueryCache.stats();
+    }
+
+    @GetMapping("/text-index")
+    public ShipTextIndex.Stats getTextIndexStats() {
+        return shipTextIndex.stats();
+    }
+
+    @GetMapping("/column-store")
+    public ShipColumnStore.Stats getColumnStoreStats() {
+        return shipColumnStore.stats();
+    }
+
+    @GetMapping("/counters")
+    public ShipCounters.Stats getCounters() {
+        return shipCounters.stats();
+    }
+
+    @PostMapping("/counters/reconcile")
+    public ShipCounters.Stats reconcileCounters() {
+        shipCounters.reconcile();
+        return shipCounters.stats();
+    }
+
+    @GetMapping("/feed")
+    public ShipChangeFeed.Stats getFeedStats() {
+        return shipChangeFeed.stats();
+    }
+
+    @GetMapping("/ratings")
+    public RatingRecalculation.Progress getRatingRecalculation() {
+        return ratingRecalculation.progress();
+    }
+
+    @PostMapping("/ratings/recompute")
+    public RatingRecalculation.Progress recomputeRatings(@RequestParam int year,
+                                                        @RequestParam(required = false) Long fromId) {
+        return ratingRecalculation.start(year, fromId);
+    }
+
+    @PostMapping("/ratings/stop")
+    public RatingRecalculation.Progress stopRatingRecalculation() {
+        return ratingRecalculation.stop();
+    }
+
+    @PostMapping("/reload")
+    public void reload() {
+        shipService.reload();
+    }
+}
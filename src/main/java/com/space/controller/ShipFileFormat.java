@@ -0,0 +1,271 @@
+package com.space.controller;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.space.exceptions.BadRequestException;
+import com.space.model.Ship;
+import com.space.model.ShipType;
+import com.space.service.ShipService;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public enum ShipFileFormat {
+    NDJSON("application/x-ndjson", "ndjson") {
+        @Override
+        void writeHeader(Writer writer) {
+        }
+
+        @Override
+        void write(Writer writer, Ship ship) throws IOException {
+            MAPPER.writeValue(writer, ship);
+            writer.write('\n');
+        }
+
+        @Override
+        ShipService.ShipReader reader(BufferedReader reader) {
+            return new LineReader(reader) {
+                @Override
+                Ship parse(String line) {
+                    Ship ship;
+                    try {
+                        ship = MAPPER.readValue(line, Ship.class);
+                    } catch (JsonProcessingException e) {
+                        throw new IllegalArgumentException(e);
+                    }
+                    if (ship == null) {
+                        throw new IllegalArgumentException("Record is null");
+                    }
+                    return ship;
+                }
+            };
+        }
+    },
+    CSV("text/csv", "csv") {
+        @Override
+        void writeHeader(Writer writer) throws IOException {
+            writer.write(String.join(",", CSV_COLUMNS) + "\n");
+        }
+
+        @Override
+        void write(Writer writer, Ship ship) throws IOException {
+            writer.write(String.valueOf(ship.getId()));
+            writer.write(',');
+            writeQuoted(writer, ship.getName());
+            writer.write(',');
+            writeQuoted(writer, ship.getPlanet());
+            writer.write(',');
+            writer.write(ship.getShipType().name());
+            writer.write(',');
+            writer.write(String.valueOf(ship.getProdDate().getTime()));
+            writer.write(',');
+            writer.write(String.valueOf(ship.getUsed()));
+            writer.write(',');
+            writer.write(String.valueOf(ship.getSpeed()));
+            writer.write(',');
+            writer.write(String.valueOf(ship.getCrewSize()));
+            writer.write(',');
+            writer.write(String.valueOf(ship.getRating()));
+            writer.write('\n');
+        }
+
+        @Override
+        ShipService.ShipReader reader(BufferedReader reader) throws IOException {
+            String header = nextRecord(reader);
+            Map<String, Integer> columns = new HashMap<>();
+            List<String> names;
+            try {
+                names = header == null ? new ArrayList<>() : split(header);
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException();
+            }
+            for (int i = 0; i < names.size(); i++) {
+                columns.put(names.get(i).trim(), i);
+            }
+            return new LineReader(reader) {
+                @Override
+                String nextLine(BufferedReader reader) throws IOException {
+                    return nextRecord(reader);
+                }
+
+                @Override
+                Ship parse(String line) {
+                    List<String> values = split(line);
+                    Ship ship = new Ship();
+                    ship.setName(value(values, columns, "name"));
+                    ship.setPlanet(value(values, columns, "planet"));
+                    String shipType = value(values, columns, "shipType");
+                    ship.setShipType(shipType == null ? null : ShipType.valueOf(shipType));
+                    String prodDate = value(values, columns, "prodDate");
+                    ship.setProdDate(prodDate == null ? null : new Date(Long.parseLong(prodDate)));
+                    String isUsed = value(values, columns, "isUsed");
+                    ship.setUsed(isUsed == null ? null : parseBoolean(isUsed));
+                    String speed = value(values, columns, "speed");
+                    ship.setSpeed(speed == null ? null : Double.valueOf(speed));
+                    String crewSize = value(values, columns, "crewSize");
+                    ship.setCrewSize(crewSize == null ? null : Integer.valueOf(crewSize));
+                    return ship;
+                }
+            };
+        }
+    };
+
+    private static final String[] CSV_COLUMNS = {"id", "name", "planet", "shipType", "prodDate", "isUsed", "speed", "crewSize", "rating"};
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.NONE)
+            .setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+            .disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+
+    private String contentType;
+    private String extension;
+
+    ShipFileFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    abstract void writeHeader(Writer writer) throws IOException;
+
+    abstract void write(Writer writer, Ship ship) throws IOException;
+
+    abstract ShipService.ShipReader reader(BufferedReader reader) throws IOException;
+
+    private static String nextLine(BufferedReader reader) throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+        } while (line != null && line.trim().isEmpty());
+        return line;
+    }
+
+    // A CSV record ends at the first line break outside quotes, so quoted values may span lines.
+    private static String nextRecord(BufferedReader reader) throws IOException {
+        StringBuilder record = new StringBuilder();
+        boolean quoted = false;
+        for (int c = reader.read(); c != -1; c = reader.read()) {
+            if (c == '"') {
+                quoted = !quoted;
+            } else if (!quoted && (c == '\n' || c == '\r')) {
+                if (c == '\r') {
+                    reader.mark(1);
+                    if (reader.read() != '\n') {
+                        reader.reset();
+                    }
+                }
+                if (record.toString().trim().isEmpty()) {
+                    record.setLength(0);
+                    continue;
+                }
+                return record.toString();
+            }
+            record.append((char) c);
+        }
+        return record.toString().trim().isEmpty() ? null : record.toString();
+    }
+
+    private static Boolean parseBoolean(String value) {
+        if (value.equalsIgnoreCase("true")) {
+            return true;
+        }
+        if (value.equalsIgnoreCase("false")) {
+            return false;
+        }
+        throw new IllegalArgumentException("Not a boolean: " + value);
+    }
+
+    private static void writeQuoted(Writer writer, String value) throws IOException {
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private static String value(List<String> values, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= values.size() || values.get(index).isEmpty()) {
+            return null;
+        }
+        return values.get(index);
+    }
+
+    private abstract static class LineReader implements ShipService.ShipReader {
+        private final BufferedReader reader;
+        private String line;
+
+        LineReader(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public boolean hasNext() throws IOException {
+            if (line == null) {
+                line = nextLine(reader);
+            }
+            return line != null;
+        }
+
+        String nextLine(BufferedReader reader) throws IOException {
+            return ShipFileFormat.nextLine(reader);
+        }
+
+        @Override
+        public Ship next() {
+            String current = line;
+            line = null;
+            return parse(current);
+        }
+
+        abstract Ship parse(String line);
+    }
+
+    private static List<String> split(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    value.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted value");
+        }
+        values.add(value.toString());
+        return values;
+    }
+}
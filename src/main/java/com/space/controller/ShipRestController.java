@@ -1,113 +1,272 @@
 package com.space.controller;
 
+import com.space.config.DbRequestExecutor;
 import com.space.exceptions.BadRequestException;
 import com.space.model.Ship;
-import com.space.model.ShipType;
+import com.space.model.ShipBatchResult;
+import com.space.model.ShipGroupStats;
+import com.space.model.ShipImportResult;
+import com.space.model.ShipPage;
+import com.space.repository.ShipCursor;
+import com.space.repository.ShipFilter;
+import com.space.repository.ShipGrouping;
+import com.space.service.ShipChangeFeed;
 import com.space.service.ShipService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.WebDataBinder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import javax.servlet.http.HttpServletRequest;
+import java.beans.PropertyEditorSupport;
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("rest/ships")
 public class ShipRestController {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final int MAX_BATCH_SIZE = 10000;
+    public static final int MAX_FILTER_IDS = 1000;
+    private static final int STREAM_BUFFER_SIZE = 64 * 1024;
+
     private final ShipService shipService;
+    private final DbRequestExecutor dbRequestExecutor;
+    private final ShipChangeFeed shipChangeFeed;
 
     @Autowired
-    public ShipRestController(ShipService shipService) {
+    public ShipRestController(ShipService shipService, DbRequestExecutor dbRequestExecutor, ShipChangeFeed shipChangeFeed) {
         this.shipService = shipService;
+        this.dbRequestExecutor = dbRequestExecutor;
+        this.shipChangeFeed = shipChangeFeed;
+    }
+
+    @InitBinder
+    public void initBinder(WebDataBinder binder){
+        binder.registerCustomEditor(List.class, "ids", new IdListEditor());
     }
 
     @GetMapping
-    public List<Ship> getShipsList(
-            @RequestParam(required = false) Optional<String> name,
-            @RequestParam(required = false) Optional<String> planet,
-            @RequestParam(required = false) Optional <ShipType> shipType,
-            @RequestParam(required = false) Optional<Long> after,
-            @RequestParam(required = false) Optional<Long>  before,
-            @RequestParam(required = false) Optional<Boolean> isUsed,
-            @RequestParam(required = false) Optional<Double> minSpeed,
-            @RequestParam(required = false) Optional<Double>  maxSpeed,
-            @RequestParam(required = false) Optional<Integer> minCrewSize,
-            @RequestParam(required = false) Optional<Integer> maxCrewSize,
-            @RequestParam(required = false) Optional<Double>  minRating,
-            @RequestParam(required = false) Optional<Double>  maxRating,
+    public DeferredResult<ResponseEntity<List<Ship>>> getShipsList(
+            ShipFilter filter,
             @RequestParam(required = false) Optional<ShipOrder> order,
             @RequestParam(required = false) Optional<Integer> pageNumber,
-            @RequestParam(required = false) Optional<Integer> pageSize
+            @RequestParam(required = false) Optional<Integer> pageSize,
+            @RequestParam(required = false) Optional<String> cursor
             ){
 
-        String sort = "id";
-        if(order.isPresent()){
-            sort = order.get().getFieldName();
+        if(cursor.isPresent()){
+            String sort = order.orElse(ShipOrder.ID).getFieldName();
+            int size = pageSize.orElse(3);
+            if(size < 1){
+                throw new BadRequestException();
+            }
+            ShipCursor after = decodeCursor(cursor.get());
+            return dbRequestExecutor.submit(() -> {
+                List<Ship> ships = shipService.getShipsByFiltersAfter(filter, sort, after, size);
+                ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+                if(ships.size() == size){
+                    response.header(NEXT_CURSOR_HEADER, ShipCursor.after(ships.get(size - 1), sort).encode());
+                }
+                return response.body(ships);
+            });
         }
 
-        Pageable pageable = PageRequest.of(pageNumber.orElse(0), pageSize.orElse(3), Sort.by(sort));
-
-        return shipService.getShipsByFilters(name, planet, shipType, after,
-                before, isUsed,minSpeed, maxSpeed, minCrewSize,
-                maxCrewSize, minRating, maxRating, pageable);
+        Pageable pageable = toPageable(order, pageNumber, pageSize);
+        return dbRequestExecutor.submit(() -> ResponseEntity.ok(shipService.getShipsByFilters(filter, pageable)));
     }
 
-    @GetMapping("/count")
-    public long getShipsCount(
-            @RequestParam(required = false) Optional<String> name,
-            @RequestParam(required = false) Optional<String> planet,
-            @RequestParam(required = false) Optional <ShipType> shipType,
-            @RequestParam(required = false) Optional<Long> after,
-            @RequestParam(required = false) Optional<Long>  before,
-            @RequestParam(required = false) Optional<Boolean> isUsed,
-            @RequestParam(required = false) Optional<Double> minSpeed,
-            @RequestParam(required = false) Optional<Double>  maxSpeed,
-            @RequestParam(required = false) Optional<Integer> minCrewSize,
-            @RequestParam(required = false) Optional<Integer> maxCrewSize,
-            @RequestParam(required = false) Optional<Double>  minRating,
-            @RequestParam(required = false) Optional<Double>  maxRating,
+    @GetMapping("/search")
+    public DeferredResult<ShipPage> searchShips(
+            ShipFilter filter,
             @RequestParam(required = false) Optional<ShipOrder> order,
             @RequestParam(required = false) Optional<Integer> pageNumber,
             @RequestParam(required = false) Optional<Integer> pageSize
     ){
-        return shipService.getShipsByFilters(name, planet, shipType, after,
-                before, isUsed,minSpeed, maxSpeed, minCrewSize,
-                maxCrewSize, minRating, maxRating, null).size();
+        Pageable pageable = toPageable(order, pageNumber, pageSize);
+        return dbRequestExecutor.submit(() -> shipService.searchShips(filter, pageable));
+    }
+
+    @GetMapping("/export")
+    public void exportShips(
+            ShipFilter filter,
+            @RequestParam(required = false) Optional<ShipFileFormat> format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) Optional<String> acceptEncoding,
+            HttpServletResponse response
+    ) throws IOException {
+        ShipFileFormat exportFormat = format.orElse(ShipFileFormat.NDJSON);
+        boolean gzip = acceptEncoding.map(value -> value.contains("gzip")).orElse(false);
+
+        response.setContentType(exportFormat.getContentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"ships." + exportFormat.getExtension() + "\"");
+        if(gzip){
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+
+        OutputStream out = gzip ? new GZIPOutputStream(response.getOutputStream(), STREAM_BUFFER_SIZE) : response.getOutputStream();
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), STREAM_BUFFER_SIZE);
+        exportFormat.writeHeader(writer);
+        shipService.exportShips(filter, ship -> exportFormat.write(writer, ship));
+        writer.flush();
+        if(gzip){
+            ((GZIPOutputStream) out).finish();
+        }
+    }
+
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter getShipChanges(
+            @RequestHeader(value = "Last-Event-ID", required = false) Optional<Long> lastEventIdHeader,
+            @RequestParam(required = false) Optional<Long> lastEventId
+    ){
+        return shipChangeFeed.subscribe(lastEventIdHeader.orElse(lastEventId.orElse(null)));
+    }
+
+    @GetMapping("/count")
+    public DeferredResult<Long> getShipsCount(ShipFilter filter){
+        return dbRequestExecutor.submit(() -> shipService.getShipsCountByFilters(filter));
+    }
+
+    @GetMapping("/stats")
+    public DeferredResult<List<ShipGroupStats>> getShipStats(
+            ShipFilter filter,
+            @RequestParam(required = false) Optional<ShipGrouping> groupBy
+    ){
+        ShipGrouping grouping = groupBy.orElse(ShipGrouping.SHIP_TYPE);
+        return dbRequestExecutor.submit(() -> shipService.getShipStats(filter, grouping));
     }
 
     @GetMapping("/{id}")
-    public Ship getShipById(@PathVariable Long id){
+    public DeferredResult<Ship> getShipById(@PathVariable Long id){
         if(!isValidId(id)){
             throw new BadRequestException();
         }
-        return shipService.getShipById(id);
+        return dbRequestExecutor.submit(() -> shipService.getShipById(id));
     }
 
     @PostMapping
-    public Ship createShip(@RequestBody Ship ship){
+    public DeferredResult<Ship> createShip(@RequestBody Ship ship){
 
-        return shipService.createShip(ship);
+        return dbRequestExecutor.submit(() -> shipService.createShip(ship));
+    }
+
+    @PostMapping("/batch")
+    public DeferredResult<ShipBatchResult> createShips(@RequestBody List<Ship> ships){
+        if(ships.isEmpty() || ships.size() > MAX_BATCH_SIZE){
+            throw new BadRequestException();
+        }
+        return dbRequestExecutor.submit(() -> shipService.createShips(ships));
+    }
+
+    @PostMapping("/import")
+    public ShipImportResult importShips(
+            @RequestParam(required = false) Optional<ShipFileFormat> format,
+            @RequestHeader(value = HttpHeaders.CONTENT_ENCODING, required = false) Optional<String> contentEncoding,
+            HttpServletRequest request
+    ) throws IOException {
+        InputStream in = request.getInputStream();
+        if(contentEncoding.map(value -> value.contains("gzip")).orElse(false)){
+            in = new GZIPInputStream(in, STREAM_BUFFER_SIZE);
+        }
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), STREAM_BUFFER_SIZE);
+        return shipService.importShips(format.orElse(ShipFileFormat.NDJSON).reader(reader));
+    }
+
+    @PostMapping("/bulk")
+    public DeferredResult<Integer> updateShips(ShipFilter filter, @RequestBody Ship changes){
+        return dbRequestExecutor.submit(() -> shipService.updateShipsByFilter(filter, changes));
     }
 
     @PostMapping("/{id}")
-    public Ship updateShip(@RequestBody Ship ship, @PathVariable long id){
+    public DeferredResult<Ship> updateShip(@RequestBody Ship ship, @PathVariable long id){
         if(!isValidId(id)){
             throw new BadRequestException();
         }
-        return shipService.updateShip(ship, id);
+        return dbRequestExecutor.submit(() -> shipService.updateShip(ship, id));
+    }
+
+    @PatchMapping("/{id}")
+    public DeferredResult<ResponseEntity<Void>> patchShip(@RequestBody Ship ship, @PathVariable long id){
+        if(!isValidId(id)){
+            throw new BadRequestException();
+        }
+        return dbRequestExecutor.submit(() -> {
+            shipService.patchShip(ship, id);
+            return ResponseEntity.ok().build();
+        });
+    }
+
+    @DeleteMapping
+    public DeferredResult<Integer> deleteShips(ShipFilter filter){
+        return dbRequestExecutor.submit(() -> shipService.deleteShipsByFilter(filter));
     }
 
     @DeleteMapping("/{id}")
-    public void deleteShip(@PathVariable long id){
+    public DeferredResult<ResponseEntity<Void>> deleteShip(@PathVariable long id){
         if(!isValidId(id)){
             throw new BadRequestException();
         }
-        shipService.deleteShip(id);
+        return dbRequestExecutor.submit(() -> {
+            shipService.deleteShip(id);
+            return ResponseEntity.ok().build();
+        });
+    }
+
+    private Pageable toPageable(Optional<ShipOrder> order, Optional<Integer> pageNumber, Optional<Integer> pageSize){
+        String sort = order.orElse(ShipOrder.ID).getFieldName();
+        return PageRequest.of(pageNumber.orElse(0), pageSize.orElse(3), Sort.by(sort));
+    }
+
+    private ShipCursor decodeCursor(String token){
+        if(token.isEmpty()){
+            return null;
+        }
+        try {
+            return ShipCursor.decode(token);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException();
+        }
     }
 
     public boolean isValidId(Long id){
         return id != null && id > 0 && id % 1 == 0;
     }
+
+    // Rejects an oversized id list before parsing it; the binding error is answered with 400.
+    private static class IdListEditor extends PropertyEditorSupport {
+        @Override
+        public void setAsText(String text){
+            if(StringUtils.countOccurrencesOf(text, ",") >= MAX_FILTER_IDS){
+                throw new IllegalArgumentException("More than " + MAX_FILTER_IDS + " ids");
+            }
+            List<Long> ids = new ArrayList<>();
+            for(String id : StringUtils.commaDelimitedListToStringArray(text)){
+                if(!id.trim().isEmpty()){
+                    ids.add(Long.valueOf(id.trim()));
+                }
+            }
+            setValue(ids);
+        }
+    }
 }
@@ -0,0 +1,31 @@
+package com.space.model;
+
+import javax.persistence.*;
+
+@Entity
+@Table(name = "setting")
+public class Setting {
+
+    @Id
+    @Column(name = "name")
+    private String name;
+
+    @Column(name = "settingValue")
+    private String value;
+
+    public Setting() {
+    }
+
+    public Setting(String name, String value) {
+        this.name = name;
+        this.value = value;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getValue() {
+        return value;
+    }
+}
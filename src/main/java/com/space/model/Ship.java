@@ -37,6 +37,21 @@ public class Ship {
     @Column(name = "rating")
     private Double rating;
 
+    public Ship() {
+    }
+
+    public Ship(Ship other) {
+        this.id = other.id;
+        this.name = other.name;
+        this.planet = other.planet;
+        this.shipType = other.shipType;
+        this.prodDate = other.prodDate == null ? null : new Date(other.prodDate.getTime());
+        this.isUsed = other.isUsed;
+        this.speed = other.speed;
+        this.crewSize = other.crewSize;
+        this.rating = other.rating;
+    }
+
     public Long getId() {
         return id;
     }
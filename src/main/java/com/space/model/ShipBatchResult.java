@@ -0,0 +1,39 @@
+package com.space.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ShipBatchResult {
+    private List<Ship> created = new ArrayList<>();
+    private List<Failure> failures = new ArrayList<>();
+
+    public List<Ship> getCreated() {
+        return created;
+    }
+
+    public List<Failure> getFailures() {
+        return failures;
+    }
+
+    public void addFailure(int index, String reason) {
+        failures.add(new Failure(index, reason));
+    }
+
+    public static class Failure {
+        private int index;
+        private String reason;
+
+        public Failure(int index, String reason) {
+            this.index = index;
+            this.reason = reason;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.space.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ShipImportResult {
+    private long imported;
+    private long rejected;
+    private int maxReportedFailures;
+    private List<ShipBatchResult.Failure> failures = new ArrayList<>();
+
+    public ShipImportResult(int maxReportedFailures) {
+        this.maxReportedFailures = maxReportedFailures;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public List<ShipBatchResult.Failure> getFailures() {
+        return failures;
+    }
+
+    public void addImported(int count) {
+        imported += count;
+    }
+
+    public void addFailure(int row, String reason) {
+        rejected++;
+        if (failures.size() < maxReportedFailures) {
+            failures.add(new ShipBatchResult.Failure(row, reason));
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.space.model;
+
+import java.util.List;
+
+public class ShipPage {
+    private List<Ship> ships;
+    private long count;
+
+    public ShipPage(List<Ship> ships, long count) {
+        this.ships = ships;
+        this.count = count;
+    }
+
+    public List<Ship> getShips() {
+        return ships;
+    }
+
+    public long getCount() {
+        return count;
+    }
+}
@@ -0,0 +1,9 @@
+package com.space.repository;
+
+import com.space.model.Setting;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SettingRepository extends JpaRepository<Setting, String> {
+}
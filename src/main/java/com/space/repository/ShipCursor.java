@@ -0,0 +1,83 @@
+package com.space.repository;
+
+import com.space.model.Ship;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+public class ShipCursor {
+    private final String sortField;
+    private final Comparable<?> value;
+    private final long id;
+
+    private ShipCursor(String sortField, Comparable<?> value, long id) {
+        this.sortField = sortField;
+        this.value = value;
+        this.id = id;
+    }
+
+    public static ShipCursor after(Ship ship, String sortField) {
+        Comparable<?> value;
+        switch (sortField) {
+            case "id":
+                value = ship.getId();
+                break;
+            case "speed":
+                value = ship.getSpeed();
+                break;
+            case "prodDate":
+                value = ship.getProdDate();
+                break;
+            case "rating":
+                value = ship.getRating();
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported sort field " + sortField);
+        }
+        return new ShipCursor(sortField, value, ship.getId());
+    }
+
+    public static ShipCursor decode(String token) {
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(":");
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Malformed cursor", e);
+        }
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+        String sortField = parts[0];
+        long id = Long.parseLong(parts[2]);
+        switch (sortField) {
+            case "id":
+                return new ShipCursor(sortField, id, id);
+            case "speed":
+            case "rating":
+                return new ShipCursor(sortField, Double.valueOf(parts[1]), id);
+            case "prodDate":
+                return new ShipCursor(sortField, new Date(Long.parseLong(parts[1])), id);
+            default:
+                throw new IllegalArgumentException("Unsupported sort field " + sortField);
+        }
+    }
+
+    public String encode() {
+        String key = value instanceof Date ? String.valueOf(((Date) value).getTime()) : String.valueOf(value);
+        String raw = sortField + ":" + key + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public String getSortField() {
+        return sortField;
+    }
+
+    public Comparable<?> getValue() {
+        return value;
+    }
+
+    public long getId() {
+        return id;
+    }
+}
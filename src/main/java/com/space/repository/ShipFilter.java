@@ -0,0 +1,214 @@
+package com.space.repository;
+
+import com.space.model.ShipType;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.util.List;
+
+public class ShipFilter {
+    private List<Long> ids;
+    private String name;
+    private String planet;
+    private ShipType shipType;
+    private Long after;
+    private Long before;
+    private Boolean isUsed;
+    private Double minSpeed;
+    private Double maxSpeed;
+    private Integer minCrewSize;
+    private Integer maxCrewSize;
+    private Double minRating;
+    private Double maxRating;
+
+    public ShipFilter() {
+    }
+
+    public ShipFilter(ShipFilter other) {
+        this.ids = other.ids;
+        this.name = other.name;
+        this.planet = other.planet;
+        this.shipType = other.shipType;
+        this.after = other.after;
+        this.before = other.before;
+        this.isUsed = other.isUsed;
+        this.minSpeed = other.minSpeed;
+        this.maxSpeed = other.maxSpeed;
+        this.minCrewSize = other.minCrewSize;
+        this.maxCrewSize = other.maxCrewSize;
+        this.minRating = other.minRating;
+        this.maxRating = other.maxRating;
+    }
+
+    public List<Long> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<Long> ids) {
+        this.ids = ids;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getPlanet() {
+        return planet;
+    }
+
+    public void setPlanet(String planet) {
+        this.planet = planet;
+    }
+
+    public ShipType getShipType() {
+        return shipType;
+    }
+
+    public void setShipType(ShipType shipType) {
+        this.shipType = shipType;
+    }
+
+    public Long getAfter() {
+        return after;
+    }
+
+    public void setAfter(Long after) {
+        this.after = after;
+    }
+
+    public Long getBefore() {
+        return before;
+    }
+
+    public void setBefore(Long before) {
+        this.before = before;
+    }
+
+    public Boolean getIsUsed() {
+        return isUsed;
+    }
+
+    public void setIsUsed(Boolean isUsed) {
+        this.isUsed = isUsed;
+    }
+
+    public Double getMinSpeed() {
+        return minSpeed;
+    }
+
+    public void setMinSpeed(Double minSpeed) {
+        this.minSpeed = minSpeed;
+    }
+
+    public Double getMaxSpeed() {
+        return maxSpeed;
+    }
+
+    public void setMaxSpeed(Double maxSpeed) {
+        this.maxSpeed = maxSpeed;
+    }
+
+    public Integer getMinCrewSize() {
+        return minCrewSize;
+    }
+
+    public void setMinCrewSize(Integer minCrewSize) {
+        this.minCrewSize = minCrewSize;
+    }
+
+    public Integer getMaxCrewSize() {
+        return maxCrewSize;
+    }
+
+    public void setMaxCrewSize(Integer maxCrewSize) {
+        this.maxCrewSize = maxCrewSize;
+    }
+
+    public Double getMinRating() {
+        return minRating;
+    }
+
+    public void setMinRating(Double minRating) {
+        this.minRating = minRating;
+    }
+
+    public Double getMaxRating() {
+        return maxRating;
+    }
+
+    public void setMaxRating(Double maxRating) {
+        this.maxRating = maxRating;
+    }
+
+    public boolean hasCriteria() {
+        return !toString().isEmpty();
+    }
+
+    public String shape() {
+        StringBuilder sb = new StringBuilder();
+        appendName(sb, "ids", ids);
+        appendName(sb, "name", name);
+        appendName(sb, "planet", planet);
+        appendName(sb, "shipType", shipType);
+        appendName(sb, "after", after);
+        appendName(sb, "before", before);
+        appendName(sb, "isUsed", isUsed);
+        appendName(sb, "minSpeed", minSpeed);
+        appendName(sb, "maxSpeed", maxSpeed);
+        appendName(sb, "minCrewSize", minCrewSize);
+        appendName(sb, "maxCrewSize", maxCrewSize);
+        appendName(sb, "minRating", minRating);
+        appendName(sb, "maxRating", maxRating);
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        append(sb, "ids", ids);
+        append(sb, "name", name);
+        append(sb, "planet", planet);
+        append(sb, "shipType", shipType);
+        append(sb, "after", after);
+        append(sb, "before", before);
+        append(sb, "isUsed", isUsed);
+        append(sb, "minSpeed", minSpeed);
+        append(sb, "maxSpeed", maxSpeed);
+        append(sb, "minCrewSize", minCrewSize);
+        append(sb, "maxCrewSize", maxCrewSize);
+        append(sb, "minRating", minRating);
+        append(sb, "maxRating", maxRating);
+        return sb.toString();
+    }
+
+    private static void appendName(StringBuilder sb, String name, Object value) {
+        if (value != null) {
+            if (sb.length() > 0) {
+                sb.append(',');
+            }
+            sb.append(name);
+        }
+    }
+
+    private static void append(StringBuilder sb, String name, Object value) {
+        if (value != null) {
+            if (sb.length() > 0) {
+                sb.append('&');
+            }
+            sb.append(name).append('=');
+            if (value instanceof String) {
+                try {
+                    sb.append(URLEncoder.encode((String) value, "UTF-8"));
+                } catch (UnsupportedEncodingException e) {
+                    throw new IllegalStateException(e);
+                }
+            } else {
+                sb.append(value);
+            }
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.space.repository;
+
+public enum ShipGrouping {
+    SHIP_TYPE,
+    PLANET,
+    IS_USED,
+    YEAR
+}
@@ -0,0 +1,56 @@
+package com.space.repository;
+
+import com.space.model.Ship;
+import com.space.model.ShipGroupStats;
+import com.space.model.ShipType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.List;
+
+public interface ShipRepositoryCustom {
+    List<Ship> findByFilter(ShipFilter filter, Pageable pageable);
+
+    List<Ship> findByFilterAfter(ShipFilter filter, String sortField, ShipCursor cursor, int limit);
+
+    long countByFilter(ShipFilter filter);
+
+    List<ShipGroupStats> aggregateByFilter(ShipFilter filter, ShipGrouping grouping);
+
+    void insertAll(List<Ship> ships);
+
+    int updateById(long id, Ship changes);
+
+    Long findChunkEnd(long afterId, int chunkSize);
+
+    int recomputeRatings(long afterId, long lastId, int ratingYear);
+
+    List<Ship> findByFilterForUpdate(ShipFilter filter, int limit);
+
+    int deleteByFilter(ShipFilter filter);
+
+    int updateByFilter(ShipFilter filter, Ship changes, int ratingYear);
+
+    void scanByFilter(ShipFilter filter, ShipHandler handler) throws IOException;
+
+    @Transactional(readOnly = true, propagation = Propagation.REQUIRES_NEW)
+    void scanText(TextRowHandler handler);
+
+    @Transactional(readOnly = true, propagation = Propagation.REQUIRES_NEW)
+    void scanColumns(long afterId, long lastId, ColumnRowHandler handler);
+
+    interface ShipHandler {
+        void accept(Ship ship) throws IOException;
+    }
+
+    interface TextRowHandler {
+        void accept(Long id, String name, String planet);
+    }
+
+    interface ColumnRowHandler {
+        void accept(Long id, ShipType shipType, Date prodDate, Boolean used, Double speed, Integer crewSize, Double rating);
+    }
+}
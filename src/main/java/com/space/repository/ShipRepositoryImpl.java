@@ -0,0 +1,390 @@
+package com.space.repository;
+
+import com.space.model.Ship;
+import com.space.model.ShipGroupStats;
+import com.space.model.ShipType;
+import org.hibernate.CacheMode;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.query.Query;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Tuple;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaDelete;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.CriteriaUpdate;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+public class ShipRepositoryImpl implements ShipRepositoryCustom {
+    private static final int FETCH_SIZE = 1000;
+    private static final int BATCH_SIZE = 1000;
+    private static final String INSERT_SQL = "insert into ship (name, planet, shipType, prodDate, isUsed, speed, crewSize, rating) "
+            + "values (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Ship> findByFilter(ShipFilter filter, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Ship> query = cb.createQuery(Ship.class);
+        Root<Ship> ship = query.from(Ship.class);
+        query.select(ship).where(toPredicates(filter, cb, ship));
+
+        if (pageable == null) {
+            return entityManager.createQuery(query).getResultList();
+        }
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), ship, cb));
+        TypedQuery<Ship> typedQuery = entityManager.createQuery(query);
+        typedQuery.setFirstResult((int) pageable.getOffset());
+        typedQuery.setMaxResults(pageable.getPageSize());
+        return typedQuery.getResultList();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Ship> findByFilterAfter(ShipFilter filter, String sortField, ShipCursor cursor, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Ship> query = cb.createQuery(Ship.class);
+        Root<Ship> ship = query.from(Ship.class);
+
+        List<Predicate> predicates = new ArrayList<>(Arrays.asList(toPredicates(filter, cb, ship)));
+        Path<Long> id = ship.get("id");
+        if (cursor != null) {
+            if ("id".equals(sortField)) {
+                predicates.add(cb.greaterThan(id, cursor.getId()));
+            } else {
+                Path<Comparable<Object>> key = ship.get(sortField);
+                Comparable<Object> value = (Comparable<Object>) cursor.getValue();
+                predicates.add(cb.or(
+                        cb.greaterThan(key, value),
+                        cb.and(cb.equal(key, value), cb.greaterThan(id, cursor.getId()))));
+            }
+        }
+        query.select(ship).where(predicates.toArray(new Predicate[0]));
+        if ("id".equals(sortField)) {
+            query.orderBy(cb.asc(id));
+        } else {
+            query.orderBy(cb.asc(ship.get(sortField)), cb.asc(id));
+        }
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    public long countByFilter(ShipFilter filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Ship> ship = query.from(Ship.class);
+        query.select(cb.count(ship)).where(toPredicates(filter, cb, ship));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    @Override
+    public List<ShipGroupStats> aggregateByFilter(ShipFilter filter, ShipGrouping grouping) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Ship> ship = query.from(Ship.class);
+        Expression<?> group;
+        switch (grouping) {
+            case PLANET:
+                group = ship.get("planet");
+                break;
+            case IS_USED:
+                group = ship.get("isUsed");
+                break;
+            case YEAR:
+                group = cb.function("year", Integer.class, ship.get("prodDate"));
+                break;
+            default:
+                group = ship.get("shipType");
+        }
+        Path<Double> speed = ship.get("speed");
+        Path<Double> rating = ship.get("rating");
+        Path<Integer> crewSize = ship.get("crewSize");
+        query.multiselect(group, cb.count(ship),
+                cb.min(speed), cb.avg(speed), cb.max(speed),
+                cb.min(rating), cb.avg(rating), cb.max(rating),
+                cb.min(crewSize), cb.avg(crewSize), cb.max(crewSize))
+                .where(toPredicates(filter, cb, ship))
+                .groupBy(group)
+                .orderBy(cb.asc(group));
+
+        List<ShipGroupStats> stats = new ArrayList<>();
+        for (Tuple row : entityManager.createQuery(query).getResultList()) {
+            stats.add(new ShipGroupStats(row.get(0), row.get(1, Long.class),
+                    row.get(2, Double.class), row.get(3, Double.class), row.get(4, Double.class),
+                    row.get(5, Double.class), row.get(6, Double.class), row.get(7, Double.class),
+                    row.get(8, Integer.class), row.get(9, Double.class), row.get(10, Integer.class)));
+        }
+        return stats;
+    }
+
+    @Override
+    public void insertAll(List<Ship> ships) {
+        if (ships.isEmpty()) {
+            return;
+        }
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                for (int from = 0; from < ships.size(); from += BATCH_SIZE) {
+                    List<Ship> chunk = ships.subList(from, Math.min(from + BATCH_SIZE, ships.size()));
+                    for (Ship ship : chunk) {
+                        statement.setString(1, ship.getName());
+                        statement.setString(2, ship.getPlanet());
+                        statement.setString(3, ship.getShipType().name());
+                        statement.setTimestamp(4, new Timestamp(ship.getProdDate().getTime()));
+                        statement.setBoolean(5, ship.getUsed());
+                        statement.setDouble(6, ship.getSpeed());
+                        statement.setInt(7, ship.getCrewSize());
+                        statement.setDouble(8, ship.getRating());
+                        statement.addBatch();
+                    }
+                    statement.executeBatch();
+                    try (ResultSet keys = statement.getGeneratedKeys()) {
+                        for (Ship ship : chunk) {
+                            if (!keys.next()) {
+                                throw new SQLException("Missing generated key for batch insert");
+                            }
+                            ship.setId(keys.getLong(1));
+                        }
+                    }
+                }
+            }
+        });
+    }
+
+    @Override
+    public int updateById(long id, Ship changes) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Ship> update = cb.createCriteriaUpdate(Ship.class);
+        Root<Ship> ship = update.from(Ship.class);
+        if (changes.getName() != null) {
+            update.set(ship.<String>get("name"), changes.getName());
+        }
+        if (changes.getPlanet() != null) {
+            update.set(ship.<String>get("planet"), changes.getPlanet());
+        }
+        if (changes.getShipType() != null) {
+            update.set(ship.<ShipType>get("shipType"), changes.getShipType());
+        }
+        if (changes.getProdDate() != null) {
+            update.set(ship.<Date>get("prodDate"), changes.getProdDate());
+        }
+        if (changes.getUsed() != null) {
+            update.set(ship.<Boolean>get("isUsed"), changes.getUsed());
+        }
+        if (changes.getSpeed() != null) {
+            update.set(ship.<Double>get("speed"), changes.getSpeed());
+        }
+        if (changes.getCrewSize() != null) {
+            update.set(ship.<Integer>get("crewSize"), changes.getCrewSize());
+        }
+        if (changes.getRating() != null) {
+            update.set(ship.<Double>get("rating"), changes.getRating());
+        }
+        update.where(cb.equal(ship.get("id"), id));
+        return entityManager.createQuery(update).executeUpdate();
+    }
+
+    @Override
+    public Long findChunkEnd(long afterId, int chunkSize) {
+        List<Long> ids = entityManager
+                .createQuery("select ship.id from Ship ship where ship.id > :afterId order by ship.id", Long.class)
+                .setParameter("afterId", afterId)
+                .setFirstResult(chunkSize - 1)
+                .setMaxResults(1)
+                .getResultList();
+        if (!ids.isEmpty()) {
+            return ids.get(0);
+        }
+        return entityManager
+                .createQuery("select max(ship.id) from Ship ship where ship.id > :afterId", Long.class)
+                .setParameter("afterId", afterId)
+                .getSingleResult();
+    }
+
+    @Override
+    public int recomputeRatings(long afterId, long lastId, int ratingYear) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Ship> update = cb.createCriteriaUpdate(Ship.class);
+        Root<Ship> ship = update.from(Ship.class);
+        Expression<Integer> factor = cb.<Integer>selectCase()
+                .when(cb.isTrue(ship.get("isUsed")), 40)
+                .otherwise(80);
+        update.set(ship.<Double>get("rating"), rating(cb, ship, factor, ratingYear));
+        update.where(cb.gt(ship.get("id"), afterId), cb.le(ship.get("id"), lastId));
+        return entityManager.createQuery(update).executeUpdate();
+    }
+
+    @Override
+    public List<Ship> findByFilterForUpdate(ShipFilter filter, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Ship> query = cb.createQuery(Ship.class);
+        Root<Ship> ship = query.from(Ship.class);
+        query.select(ship).where(toPredicates(filter, cb, ship)).orderBy(cb.asc(ship.get("id")));
+        List<Ship> ships = entityManager.createQuery(query)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .setMaxResults(limit)
+                .getResultList();
+        // bulk statements bypass the persistence context, so don't keep stale managed copies around
+        for (Ship found : ships) {
+            entityManager.detach(found);
+        }
+        return ships;
+    }
+
+    @Override
+    public int deleteByFilter(ShipFilter filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaDelete<Ship> delete = cb.createCriteriaDelete(Ship.class);
+        Root<Ship> ship = delete.from(Ship.class);
+        delete.where(toPredicates(filter, cb, ship));
+        return entityManager.createQuery(delete).executeUpdate();
+    }
+
+    @Override
+    public int updateByFilter(ShipFilter filter, Ship changes, int ratingYear) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Ship> update = cb.createCriteriaUpdate(Ship.class);
+        Root<Ship> ship = update.from(Ship.class);
+        if (changes.getPlanet() != null) {
+            update.set(ship.<String>get("planet"), changes.getPlanet());
+        }
+        if (changes.getShipType() != null) {
+            update.set(ship.<ShipType>get("shipType"), changes.getShipType());
+        }
+        if (changes.getUsed() != null) {
+            update.set(ship.<Boolean>get("isUsed"), changes.getUsed());
+            update.set(ship.<Double>get("rating"), rating(cb, ship, cb.literal(changes.getUsed() ? 40 : 80), ratingYear));
+        }
+        update.where(toPredicates(filter, cb, ship));
+        return entityManager.createQuery(update).executeUpdate();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void scanByFilter(ShipFilter filter, ShipHandler handler) throws IOException {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Ship> criteria = cb.createQuery(Ship.class);
+        Root<Ship> ship = criteria.from(Ship.class);
+        criteria.select(ship).where(toPredicates(filter, cb, ship)).orderBy(cb.asc(ship.get("id")));
+
+        Session session = entityManager.unwrap(Session.class);
+        Query<Ship> query = entityManager.createQuery(criteria).unwrap(Query.class);
+        query.setFetchSize(FETCH_SIZE);
+        query.setReadOnly(true);
+        query.setCacheMode(CacheMode.IGNORE);
+        try (ScrollableResults results = query.scroll(ScrollMode.FORWARD_ONLY)) {
+            int rows = 0;
+            while (results.next()) {
+                handler.accept((Ship) results.get(0));
+                if (++rows % FETCH_SIZE == 0) {
+                    session.clear();
+                }
+            }
+        }
+        session.clear();
+    }
+
+    @Override
+    public void scanText(TextRowHandler handler) {
+        Query<Object[]> query = entityManager.unwrap(Session.class)
+                .createQuery("select ship.id, ship.name, ship.planet from Ship ship", Object[].class);
+        query.setFetchSize(FETCH_SIZE);
+        try (ScrollableResults results = query.scroll(ScrollMode.FORWARD_ONLY)) {
+            while (results.next()) {
+                handler.accept((Long) results.get(0), (String) results.get(1), (String) results.get(2));
+            }
+        }
+    }
+
+    @Override
+    public void scanColumns(long afterId, long lastId, ColumnRowHandler handler) {
+        Query<Object[]> query = entityManager.unwrap(Session.class)
+                .createQuery("select ship.id, ship.shipType, ship.prodDate, ship.isUsed, ship.speed, ship.crewSize, ship.rating "
+                        + "from Ship ship where ship.id > :afterId and ship.id <= :lastId order by ship.id", Object[].class)
+                .setParameter("afterId", afterId)
+                .setParameter("lastId", lastId);
+        query.setFetchSize(FETCH_SIZE);
+        try (ScrollableResults results = query.scroll(ScrollMode.FORWARD_ONLY)) {
+            while (results.next()) {
+                handler.accept((Long) results.get(0), (ShipType) results.get(1), (Date) results.get(2),
+                        (Boolean) results.get(3), (Double) results.get(4), (Integer) results.get(5), (Double) results.get(6));
+            }
+        }
+    }
+
+    // Same as ShipService.computeRating: 80 * k is passed as an integer factor so the product stays a
+    // double, and the decimal(19,2) cast rounds half-up like BigDecimal.setScale(2, HALF_UP).
+    private static Expression<Double> rating(CriteriaBuilder cb, Root<Ship> ship, Expression<Integer> factor, int ratingYear) {
+        Expression<Integer> age = cb.diff(cb.literal(ratingYear + 1),
+                cb.function("year", Integer.class, ship.get("prodDate")));
+        Expression<Number> rating = cb.quot(cb.prod(ship.<Double>get("speed"), factor), age);
+        return rating.as(BigDecimal.class).as(Double.class);
+    }
+
+    static Predicate[] toPredicates(ShipFilter filter, CriteriaBuilder cb, Root<Ship> ship) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter.getIds() != null) {
+            predicates.add(filter.getIds().isEmpty() ? cb.disjunction() : ship.get("id").in(filter.getIds()));
+        }
+        if (filter.getName() != null) {
+            predicates.add(cb.like(ship.get("name"), "%" + filter.getName() + "%"));
+        }
+        if (filter.getPlanet() != null) {
+            predicates.add(cb.like(ship.get("planet"), "%" + filter.getPlanet() + "%"));
+        }
+        if (filter.getShipType() != null) {
+            predicates.add(cb.equal(ship.get("shipType"), filter.getShipType()));
+        }
+        if (filter.getAfter() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(ship.get("prodDate"), new Date(filter.getAfter())));
+        }
+        if (filter.getBefore() != null) {
+            predicates.add(cb.lessThanOrEqualTo(ship.get("prodDate"), new Date(filter.getBefore())));
+        }
+        if (filter.getIsUsed() != null) {
+            predicates.add(cb.equal(ship.get("isUsed"), filter.getIsUsed()));
+        }
+        if (filter.getMinSpeed() != null) {
+            predicates.add(cb.ge(ship.get("speed"), filter.getMinSpeed()));
+        }
+        if (filter.getMaxSpeed() != null) {
+            predicates.add(cb.le(ship.get("speed"), filter.getMaxSpeed()));
+        }
+        if (filter.getMinCrewSize() != null) {
+            predicates.add(cb.ge(ship.get("crewSize"), filter.getMinCrewSize()));
+        }
+        if (filter.getMaxCrewSize() != null) {
+            predicates.add(cb.le(ship.get("crewSize"), filter.getMaxCrewSize()));
+        }
+        if (filter.getMinRating() != null) {
+            predicates.add(cb.ge(ship.get("rating"), filter.getMinRating()));
+        }
+        if (filter.getMaxRating() != null) {
+            predicates.add(cb.le(ship.get("rating"), filter.getMaxRating()));
+        }
+        return predicates.toArray(new Predicate[0]);
+    }
+}
@@ -0,0 +1,180 @@
+package com.space.service;
+
+import com.space.exceptions.BadRequestException;
+import com.space.exceptions.ConflictException;
+import com.space.model.Setting;
+import com.space.repository.SettingRepository;
+import com.space.repository.ShipRepository;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Component
+public class RatingRecalculation implements SmartInitializingSingleton, DisposableBean {
+    public static final String REFERENCE_YEAR_SETTING = "rating.reference-year";
+
+    public enum State {
+        IDLE,
+        RUNNING,
+        STOPPED,
+        COMPLETED,
+        FAILED
+    }
+
+    private static final int MAX_REFERENCE_YEAR = 9999;
+
+    private final ShipRepository shipRepository;
+    private final SettingRepository settingRepository;
+    private final ShipService shipService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate chunkTransaction;
+    private final int chunkSize;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "rating-recalculation");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Object lock = new Object();
+    private State state = State.IDLE;
+    private int referenceYear;
+    private long lastId;
+    private long processed;
+    private long total;
+    private long startedAt;
+    private long finishedAt;
+    private String error;
+    private volatile boolean stopRequested;
+
+    @Autowired
+    public RatingRecalculation(ShipRepository shipRepository, SettingRepository settingRepository, ShipService shipService,
+                               ApplicationEventPublisher eventPublisher, PlatformTransactionManager transactionManager,
+                               @Value("${cosmoport.rating.chunk-size:10000}") int chunkSize) {
+        this.shipRepository = shipRepository;
+        this.settingRepository = settingRepository;
+        this.shipService = shipService;
+        this.eventPublisher = eventPublisher;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    // Ratings already stored were computed with the last recalculation's year, so new and updated
+    // ships must keep using it after a restart.
+    @Override
+    public void afterSingletonsInstantiated() {
+        settingRepository.findById(REFERENCE_YEAR_SETTING)
+                .ifPresent(setting -> shipService.setRatingYear(Integer.parseInt(setting.getValue())));
+    }
+
+    public Progress start(int referenceYear, Long fromId) {
+        if (referenceYear < ShipService.MAX_PROD_YEAR || referenceYear > MAX_REFERENCE_YEAR
+                || (fromId != null && fromId < 0)) {
+            throw new BadRequestException();
+        }
+        synchronized (lock) {
+            if (state == State.RUNNING) {
+                throw new ConflictException();
+            }
+            boolean resume = fromId == null && (state == State.STOPPED || state == State.FAILED)
+                    && this.referenceYear == referenceYear;
+            long startId = fromId != null ? fromId : resume ? lastId : 0;
+            if (!resume) {
+                processed = 0;
+                startedAt = System.currentTimeMillis();
+            }
+            this.referenceYear = referenceYear;
+            lastId = startId;
+            total = processed + shipRepository.countByIdGreaterThan(startId);
+            finishedAt = 0;
+            error = null;
+            stopRequested = false;
+            state = State.RUNNING;
+            settingRepository.save(new Setting(REFERENCE_YEAR_SETTING, String.valueOf(referenceYear)));
+            shipService.setRatingYear(referenceYear);
+            executor.execute(() -> run(referenceYear, startId));
+            return progress();
+        }
+    }
+
+    public Progress stop() {
+        stopRequested = true;
+        return progress();
+    }
+
+    public Progress progress() {
+        Progress progress = new Progress();
+        synchronized (lock) {
+            progress.state = state;
+            progress.referenceYear = referenceYear;
+            progress.lastId = lastId;
+            progress.processed = processed;
+            progress.total = total;
+            progress.percent = total == 0 ? (state == State.COMPLETED ? 100 : 0) : Math.min(100, 100.0 * processed / total);
+            progress.startedAt = startedAt;
+            progress.finishedAt = finishedAt;
+            progress.error = error;
+        }
+        return progress;
+    }
+
+    @Override
+    public void destroy() {
+        stopRequested = true;
+        executor.shutdown();
+    }
+
+    private void run(int referenceYear, long startId) {
+        long afterId = startId;
+        try {
+            while (!stopRequested) {
+                Long chunkEnd = shipRepository.findChunkEnd(afterId, chunkSize);
+                if (chunkEnd == null) {
+                    finish(State.COMPLETED, null);
+                    return;
+                }
+                long from = afterId;
+                Integer updated = chunkTransaction.execute(status -> {
+                    int rows = shipRepository.recomputeRatings(from, chunkEnd, referenceYear);
+                    eventPublisher.publishEvent(ShipEvent.ratingsChanged(from, chunkEnd));
+                    return rows;
+                });
+                afterId = chunkEnd;
+                synchronized (lock) {
+                    lastId = chunkEnd;
+                    processed += updated == null ? 0 : updated;
+                }
+            }
+            finish(State.STOPPED, null);
+        } catch (RuntimeException e) {
+            finish(State.FAILED, e.toString());
+        }
+    }
+
+    private void finish(State finalState, String failure) {
+        synchronized (lock) {
+            state = finalState;
+            error = failure;
+            finishedAt = System.currentTimeMillis();
+        }
+    }
+
+    public static class Progress {
+        private State state;
+        private int referenceYear;
+        private long lastId;
+        private long processed;
+        private long total;
+        private double percent;
+        private long startedAt;
+        private long finishedAt;
+        private String error;
+    }
+}
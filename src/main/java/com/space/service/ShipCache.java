@@ -0,0 +1,164 @@
+package com.space.service;
+
+import com.space.model.Ship;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+@Component
+public class ShipCache {
+    private final int maxSize;
+    private final long ttlNanos;
+
+    private final Map<Long, Entry> entries;
+    private final AtomicLong writeStamp = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public ShipCache(@Value("${cosmoport.cache.ships.max-size:10000}") int maxSize,
+                     @Value("${cosmoport.cache.ships.ttl-seconds:60}") long ttlSeconds) {
+        this.maxSize = maxSize;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.entries = new LinkedHashMap<Long, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                if (size() > ShipCache.this.maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public Ship get(Long id) {
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(id);
+            if (entry != null && entry.expiresAt - System.nanoTime() < 0) {
+                entries.remove(id);
+                evictions.increment();
+                entry = null;
+            }
+        }
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return new Ship(entry.ship);
+    }
+
+    public Ship peek(Long id) {
+        synchronized (entries) {
+            Entry entry = entries.get(id);
+            return entry == null || entry.expiresAt - System.nanoTime() < 0 ? null : new Ship(entry.ship);
+        }
+    }
+
+    public long stamp() {
+        return writeStamp.get();
+    }
+
+    public void putIfUnchanged(Ship ship, long stamp) {
+        synchronized (entries) {
+            if (writeStamp.get() == stamp) {
+                entries.put(ship.getId(), new Entry(new Ship(ship), System.nanoTime() + ttlNanos));
+            }
+        }
+    }
+
+    public void evict(Long id) {
+        synchronized (entries) {
+            writeStamp.incrementAndGet();
+            entries.remove(id);
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            writeStamp.incrementAndGet();
+            entries.clear();
+        }
+    }
+
+    @TransactionalEventListener
+    public void onShipEvent(ShipEvent event) {
+        switch (event.getType()) {
+            case CREATED:
+            case UPDATED:
+                synchronized (entries) {
+                    writeStamp.incrementAndGet();
+                    entries.put(event.getId(), new Entry(event.getShip(), System.nanoTime() + ttlNanos));
+                }
+                break;
+            case BATCH_CREATED:
+            case BULK_UPDATED:
+                synchronized (entries) {
+                    writeStamp.incrementAndGet();
+                    long expiresAt = System.nanoTime() + ttlNanos;
+                    for (Ship ship : event.getShips()) {
+                        entries.put(ship.getId(), new Entry(ship, expiresAt));
+                    }
+                }
+                break;
+            case PATCHED:
+            case DELETED:
+                evict(event.getId());
+                break;
+            case BULK_DELETED:
+                synchronized (entries) {
+                    writeStamp.incrementAndGet();
+                    for (Ship ship : event.getPreviousShips()) {
+                        entries.remove(ship.getId());
+                    }
+                }
+                break;
+            default:
+                clear();
+        }
+    }
+
+    public Stats stats() {
+        Stats stats = new Stats();
+        synchronized (entries) {
+            stats.size = entries.size();
+        }
+        stats.maxSize = maxSize;
+        stats.ttlSeconds = TimeUnit.NANOSECONDS.toSeconds(ttlNanos);
+        stats.hits = hits.sum();
+        stats.misses = misses.sum();
+        stats.evictions = evictions.sum();
+        long requests = stats.hits + stats.misses;
+        stats.hitRatio = requests == 0 ? 0 : (double) stats.hits / requests;
+        return stats;
+    }
+
+    private static class Entry {
+        private final Ship ship;
+        private final long expiresAt;
+
+        Entry(Ship ship, long expiresAt) {
+            this.ship = ship;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    public static class Stats {
+        private int size;
+        private int maxSize;
+        private long ttlSeconds;
+        private long hits;
+        private long misses;
+        private long evictions;
+        private double hitRatio;
+    }
+}
@@ -0,0 +1,382 @@
+package com.space.service;
+
+import com.space.model.Ship;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+@Component
+public class ShipChangeFeed implements DisposableBean {
+    private static final Change HEARTBEAT = new Change(0, null, null);
+    private static final long IDLE = 0;
+    private static final long STALLED = Long.MIN_VALUE;
+
+    private final int historySize;
+    private final int bufferSize;
+    private final long timeoutMillis;
+    private final long writeTimeoutNanos;
+
+    private final Deque<Change> history = new ArrayDeque<>();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private long lastEventId = System.currentTimeMillis() * 1000;
+
+    private final ThreadPoolExecutor senders;
+    private final ScheduledExecutorService heartbeats = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "ship-feed-heartbeat");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder replayed = new LongAdder();
+    private final LongAdder resets = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder stalled = new LongAdder();
+
+    public ShipChangeFeed(@Value("${cosmoport.feed.history-size:10000}") int historySize,
+                          @Value("${cosmoport.feed.subscriber-buffer:256}") int bufferSize,
+                          @Value("${cosmoport.feed.sender-threads:2}") int senderThreads,
+                          @Value("${cosmoport.feed.timeout-minutes:30}") long timeoutMinutes,
+                          @Value("${cosmoport.feed.heartbeat-seconds:15}") long heartbeatSeconds,
+                          @Value("${cosmoport.feed.write-timeout-ms:5000}") long writeTimeoutMillis) {
+        this.historySize = historySize;
+        this.bufferSize = bufferSize;
+        this.timeoutMillis = TimeUnit.MINUTES.toMillis(timeoutMinutes);
+        this.writeTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(writeTimeoutMillis);
+        AtomicInteger sequence = new AtomicInteger();
+        // core size grows by one for every sender stuck on a stalled client, see evictStalled()
+        this.senders = new ThreadPoolExecutor(senderThreads, Integer.MAX_VALUE, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "ship-feed-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (heartbeatSeconds > 0) {
+            heartbeats.scheduleWithFixedDelay(this::heartbeat, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+        }
+        if (writeTimeoutMillis > 0) {
+            long period = Math.max(1, writeTimeoutMillis / 2);
+            heartbeats.scheduleWithFixedDelay(this::evictStalled, period, period, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        heartbeats.shutdownNow();
+        senders.shutdownNow();
+        for (Subscriber subscriber : subscribers) {
+            close(subscriber);
+        }
+    }
+
+    public SseEmitter subscribe(Long lastSeenId) {
+        Subscriber subscriber = new Subscriber(newEmitter(timeoutMillis), bufferSize);
+        subscriber.emitter.onCompletion(() -> close(subscriber));
+        subscriber.emitter.onTimeout(() -> close(subscriber));
+        subscriber.emitter.onError(ex -> close(subscriber));
+        synchronized (this) {
+            if (lastSeenId != null && lastSeenId != lastEventId) {
+                List<Change> missed = missedSince(lastSeenId);
+                if (missed == null || missed.size() > bufferSize) {
+                    resets.increment();
+                    subscriber.queue.offer(new Change(lastEventId, "reset", reason("RESUME_GAP")));
+                } else {
+                    replayed.add(missed.size());
+                    subscriber.queue.addAll(missed);
+                }
+            }
+            subscribers.add(subscriber);
+        }
+        schedule(subscriber);
+        return subscriber.emitter;
+    }
+
+    @TransactionalEventListener
+    public void onShipEvent(ShipEvent event) {
+        switch (event.getType()) {
+            case CREATED:
+                publish("created", event.getShip());
+                break;
+            case BATCH_CREATED:
+                publish("batch-created", event.getShips());
+                break;
+            case BULK_UPDATED:
+                publish("batch-updated", event.getShips());
+                break;
+            case BULK_DELETED:
+                List<Long> ids = new ArrayList<>(event.getPreviousShips().size());
+                for (Ship ship : event.getPreviousShips()) {
+                    ids.add(ship.getId());
+                }
+                publish("batch-deleted", Collections.singletonMap("ids", ids));
+                break;
+            case UPDATED:
+                publish("updated", event.getShip());
+                break;
+            case PATCHED:
+                publish(event.getPrevious() == null ? "patched" : "updated", patchedShip(event));
+                break;
+            case DELETED:
+                publish("deleted", Collections.singletonMap("id", event.getId()));
+                break;
+            case RATINGS_CHANGED:
+                Map<String, Object> range = reason(event.getType().name());
+                range.put("afterId", event.getAfterId());
+                range.put("lastId", event.getLastId());
+                publish("reset", range);
+                break;
+            default:
+                publish("reset", reason(event.getType().name()));
+        }
+    }
+
+    public Stats stats() {
+        Stats stats = new Stats();
+        synchronized (this) {
+            stats.lastEventId = lastEventId;
+            stats.historySize = history.size();
+        }
+        stats.subscribers = subscribers.size();
+        stats.published = published.sum();
+        stats.delivered = delivered.sum();
+        stats.replayed = replayed.sum();
+        stats.resets = resets.sum();
+        stats.dropped = dropped.sum();
+        stats.stalled = stalled.sum();
+        return stats;
+    }
+
+    protected SseEmitter newEmitter(long timeoutMillis) {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    private void publish(String name, Object data) {
+        List<Subscriber> targets;
+        synchronized (this) {
+            Change change = new Change(++lastEventId, name, data);
+            history.addLast(change);
+            if (history.size() > historySize) {
+                history.removeFirst();
+            }
+            targets = new ArrayList<>(subscribers.size());
+            for (Subscriber subscriber : subscribers) {
+                if (!subscriber.queue.offer(change)) {
+                    drop(subscriber);
+                }
+                targets.add(subscriber);
+            }
+        }
+        published.increment();
+        for (Subscriber subscriber : targets) {
+            schedule(subscriber);
+        }
+    }
+
+    private List<Change> missedSince(long lastSeenId) {
+        long oldest = history.isEmpty() ? lastEventId + 1 : history.peekFirst().id;
+        if (lastSeenId > lastEventId || lastSeenId < oldest - 1) {
+            return null;
+        }
+        List<Change> missed = new ArrayList<>();
+        for (Change change : history) {
+            if (change.id > lastSeenId) {
+                missed.add(change);
+            }
+        }
+        return missed;
+    }
+
+    private void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            if (!subscriber.queue.offer(HEARTBEAT)) {
+                drop(subscriber);
+            }
+            schedule(subscriber);
+        }
+    }
+
+    // A blocked send can't be cancelled, so the stalled client is evicted and its sender
+    // thread is replaced until the write returns or fails.
+    private void evictStalled() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            long started = subscriber.sendStartedAt.get();
+            if (started != IDLE && started != STALLED && now - started > writeTimeoutNanos
+                    && subscriber.sendStartedAt.compareAndSet(started, STALLED)) {
+                stalled.increment();
+                drop(subscriber);
+                resizeSenders(1);
+            }
+        }
+    }
+
+    private synchronized void resizeSenders(int delta) {
+        senders.setCorePoolSize(senders.getCorePoolSize() + delta);
+    }
+
+    private void drop(Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            dropped.increment();
+        }
+        subscriber.dropped = true;
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (!subscriber.closed.get() && subscriber.scheduled.compareAndSet(false, true)) {
+            try {
+                senders.execute(() -> drain(subscriber));
+            } catch (RuntimeException e) {
+                subscriber.scheduled.set(false);
+                close(subscriber);
+            }
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            Change change;
+            while (!subscriber.dropped && (change = subscriber.queue.poll()) != null) {
+                long started = System.nanoTime();
+                subscriber.sendStartedAt.set(started);
+                try {
+                    subscriber.emitter.send(change.toEvent());
+                } finally {
+                    if (!subscriber.sendStartedAt.compareAndSet(started, IDLE)) {
+                        subscriber.sendStartedAt.set(IDLE);
+                        resizeSenders(-1);
+                    }
+                }
+                if (change != HEARTBEAT) {
+                    delivered.increment();
+                }
+            }
+            if (subscriber.dropped) {
+                subscriber.emitter.complete();
+                close(subscriber);
+            }
+        } catch (IOException | IllegalStateException e) {
+            close(subscriber);
+        } finally {
+            subscriber.scheduled.set(false);
+        }
+        if (!subscriber.queue.isEmpty() || subscriber.dropped) {
+            schedule(subscriber);
+        }
+    }
+
+    private void close(Subscriber subscriber) {
+        subscriber.closed.set(true);
+        subscribers.remove(subscriber);
+        subscriber.queue.clear();
+    }
+
+    private static Ship patchedShip(ShipEvent event) {
+        Ship changes = event.getShip();
+        Ship ship = event.getPrevious() == null ? new Ship(changes) : new Ship(event.getPrevious());
+        ship.setId(event.getId());
+        if (event.getPrevious() != null) {
+            if (changes.getName() != null) {
+                ship.setName(changes.getName());
+            }
+            if (changes.getPlanet() != null) {
+                ship.setPlanet(changes.getPlanet());
+            }
+            if (changes.getShipType() != null) {
+                ship.setShipType(changes.getShipType());
+            }
+            if (changes.getProdDate() != null) {
+                ship.setProdDate(changes.getProdDate());
+            }
+            if (changes.getUsed() != null) {
+                ship.setUsed(changes.getUsed());
+            }
+            if (changes.getSpeed() != null) {
+                ship.setSpeed(changes.getSpeed());
+            }
+            if (changes.getCrewSize() != null) {
+                ship.setCrewSize(changes.getCrewSize());
+            }
+            if (changes.getRating() != null) {
+                ship.setRating(changes.getRating());
+            }
+        }
+        return ship;
+    }
+
+    private static Map<String, Object> reason(String reason) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("reason", reason);
+        return data;
+    }
+
+    private static class Change {
+        private final long id;
+        private final String name;
+        private final Object data;
+
+        private Change(long id, String name, Object data) {
+            this.id = id;
+            this.name = name;
+            this.data = data;
+        }
+
+        private SseEmitter.SseEventBuilder toEvent() {
+            if (name == null) {
+                return SseEmitter.event().comment("heartbeat");
+            }
+            return SseEmitter.event().id(String.valueOf(id)).name(name).data(data, MediaType.APPLICATION_JSON);
+        }
+    }
+
+    private static class Subscriber {
+        private final SseEmitter emitter;
+        private final BlockingQueue<Change> queue;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private volatile boolean dropped;
+        private final AtomicLong sendStartedAt = new AtomicLong(IDLE);
+
+        private Subscriber(SseEmitter emitter, int bufferSize) {
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(bufferSize);
+        }
+    }
+
+    public static class Stats {
+        private long lastEventId;
+        private int historySize;
+        private int subscribers;
+        private long published;
+        private long delivered;
+        private long replayed;
+        private long resets;
+        private long dropped;
+        private long stalled;
+    }
+}
@@ -0,0 +1,811 @@
+package com.space.service;
+
+import com.space.model.Ship;
+import com.space.model.ShipType;
+import com.space.repository.ShipCursor;
+import com.space.repository.ShipFilter;
+import com.space.repository.ShipRepository;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntToDoubleFunction;
+
+@Component
+public class ShipColumnStore implements SmartInitializingSingleton, DisposableBean {
+    private static final ShipType[] SHIP_TYPES = ShipType.values();
+
+    private final ShipRepository shipRepository;
+    private final boolean enabled;
+    private final ZoneId zone = ZoneId.systemDefault();
+    private final ExecutorService rebuilder = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "ship-column-store");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object refreshLock = new Object();
+    private final AtomicBoolean rebuildQueued = new AtomicBoolean();
+    private final ThreadLocal<long[]> scratch = new ThreadLocal<>();
+    private Columns columns = new Columns(0);
+    private boolean ready;
+    private List<ShipEvent> pending;
+    private long lastBuildMillis;
+    private final LongAdder answered = new LongAdder();
+
+    @Autowired
+    public ShipColumnStore(ShipRepository shipRepository,
+                           @Value("${cosmoport.column-store.enabled:false}") boolean enabled) {
+        this.shipRepository = shipRepository;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        rebuilder.shutdownNow();
+    }
+
+    public long count(ShipFilter filter) {
+        if (!answerable(filter)) {
+            return -1;
+        }
+        lock.readLock().lock();
+        try {
+            if (!ready) {
+                return -1;
+            }
+            int words = words(columns.size);
+            long[] mask = match(filter, words);
+            long count = 0;
+            for (int w = 0; w < words; w++) {
+                count += Long.bitCount(mask[w]);
+            }
+            answered.increment();
+            return count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long[] findIds(ShipFilter filter, Pageable pageable) {
+        if (!answerable(filter) || pageable == null || pageable.isUnpaged()) {
+            return null;
+        }
+        String sortField = sortField(pageable.getSort());
+        if (sortField == null) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            if (!ready) {
+                return null;
+            }
+            long[] mask = match(filter, words(columns.size));
+            answered.increment();
+            return select(mask, sortField, null, pageable.getOffset(), pageable.getPageSize());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long[] findIdsAfter(ShipFilter filter, String sortField, ShipCursor cursor, int limit) {
+        if (!answerable(filter) || sortKey(sortField) == null) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            if (!ready) {
+                return null;
+            }
+            long[] mask = match(filter, words(columns.size));
+            answered.increment();
+            return select(mask, sortField, cursor, 0, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener
+    public void onShipEvent(ShipEvent event) {
+        if (!enabled) {
+            return;
+        }
+        if (event.getType() == ShipEvent.Type.RELOADED
+                || (event.getType() == ShipEvent.Type.RATINGS_CHANGED && event.getAfterId() == null)) {
+            rebuild();
+            return;
+        }
+        if (event.getType() == ShipEvent.Type.BULK_CHANGED) {
+            rebuildInBackground();
+            return;
+        }
+        if (event.getType() == ShipEvent.Type.RATINGS_CHANGED) {
+            refresh(event.getAfterId(), event.getLastId());
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (pending != null) {
+                pending.add(event);
+            }
+            if (ready) {
+                apply(event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void rebuild() {
+        synchronized (refreshLock) {
+            lock.writeLock().lock();
+            try {
+                ready = false;
+                pending = new ArrayList<>();
+                columns = new Columns(0);
+            } finally {
+                lock.writeLock().unlock();
+            }
+            reload();
+        }
+    }
+
+    // Loads the replacement off the event thread; until it is swapped in, queries fall back to the database
+    // rather than answer from columns that miss the committed bulk change.
+    private void rebuildInBackground() {
+        lock.writeLock().lock();
+        try {
+            ready = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (!rebuildQueued.compareAndSet(false, true)) {
+            return;
+        }
+        rebuilder.execute(() -> {
+            synchronized (refreshLock) {
+                rebuildQueued.set(false);
+                lock.writeLock().lock();
+                try {
+                    pending = new ArrayList<>();
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                reload();
+            }
+        });
+    }
+
+    private void reload() {
+        long start = System.currentTimeMillis();
+        Columns loaded;
+        try {
+            loaded = load(Long.MIN_VALUE, Long.MAX_VALUE);
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                ready = false;
+                pending = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            columns = loaded;
+            for (ShipEvent event : pending) {
+                apply(event);
+            }
+            pending = null;
+            ready = true;
+            lastBuildMillis = System.currentTimeMillis() - start;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Stats stats() {
+        Stats stats = new Stats();
+        lock.readLock().lock();
+        try {
+            stats.enabled = enabled;
+            stats.ready = ready;
+            stats.ships = columns.live;
+            stats.slots = columns.size;
+            stats.memoryBytes = columns.memoryBytes();
+            stats.lastBuildMillis = lastBuildMillis;
+            stats.answeredQueries = answered.sum();
+        } finally {
+            lock.readLock().unlock();
+        }
+        return stats;
+    }
+
+    private void refresh(long afterId, long lastId) {
+        synchronized (refreshLock) {
+            lock.writeLock().lock();
+            try {
+                if (!ready) {
+                    return;
+                }
+                pending = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            Columns loaded;
+            try {
+                loaded = load(afterId, lastId);
+            } catch (RuntimeException e) {
+                lock.writeLock().lock();
+                try {
+                    ready = false;
+                    pending = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                throw e;
+            }
+
+            lock.writeLock().lock();
+            try {
+                merge(loaded, afterId, lastId);
+                for (ShipEvent event : pending) {
+                    apply(event);
+                }
+                pending = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    private Columns load(long afterId, long lastId) {
+        Columns loaded = new Columns(1024);
+        shipRepository.scanColumns(afterId, lastId, (id, shipType, prodDate, used, speed, crewSize, rating) -> {
+            int slot = loaded.size;
+            loaded.insert(slot, id);
+            loaded.shipTypes[slot] = shipType == null ? -1 : (byte) shipType.ordinal();
+            loaded.prodDays[slot] = prodDate == null ? Integer.MIN_VALUE : day(prodDate.getTime());
+            setBit(loaded.used, slot, used != null && used);
+            loaded.speeds[slot] = speed == null ? Double.NaN : speed;
+            loaded.crewSizes[slot] = crewSize == null ? Integer.MIN_VALUE : crewSize;
+            loaded.ratings[slot] = rating == null ? Double.NaN : rating;
+        });
+        return loaded;
+    }
+
+    private void merge(Columns loaded, long afterId, long lastId) {
+        Columns c = columns;
+        int slot = c.slotAfter(afterId);
+        int end = c.slotAfter(lastId);
+        for (int row = 0; row < loaded.size; row++) {
+            long id = loaded.ids[row];
+            while (slot < end && c.ids[slot] < id) {
+                c.remove(slot++);
+            }
+            if (slot >= end || c.ids[slot] != id) {
+                c.insert(slot, id);
+                end++;
+            }
+            c.shipTypes[slot] = loaded.shipTypes[row];
+            c.prodDays[slot] = loaded.prodDays[row];
+            setBit(c.used, slot, getBit(loaded.used, row));
+            c.speeds[slot] = loaded.speeds[row];
+            c.crewSizes[slot] = loaded.crewSizes[row];
+            c.ratings[slot] = loaded.ratings[row];
+            slot++;
+        }
+        while (slot < end) {
+            c.remove(slot++);
+        }
+        c.compactIfSparse();
+    }
+
+    private void apply(ShipEvent event) {
+        if (event.getType() == ShipEvent.Type.BATCH_CREATED || event.getType() == ShipEvent.Type.BULK_UPDATED) {
+            for (Ship ship : event.getShips()) {
+                apply(ShipEvent.Type.UPDATED, ship.getId(), ship);
+            }
+            return;
+        }
+        if (event.getType() == ShipEvent.Type.BULK_DELETED) {
+            for (Ship ship : event.getPreviousShips()) {
+                apply(ShipEvent.Type.DELETED, ship.getId(), null);
+            }
+            return;
+        }
+        apply(event.getType(), event.getId(), event.getShip());
+    }
+
+    private void apply(ShipEvent.Type type, Long id, Ship ship) {
+        Columns c = columns;
+        if (type == ShipEvent.Type.DELETED) {
+            int slot = c.slot(id);
+            if (slot >= 0) {
+                c.remove(slot);
+                c.compactIfSparse();
+            }
+            return;
+        }
+        int slot = c.slot(id);
+        if (type == ShipEvent.Type.PATCHED) {
+            if (slot < 0 || !getBit(c.present, slot)) {
+                return;
+            }
+        } else if (slot < 0) {
+            slot = -slot - 1;
+            c.insert(slot, id);
+        } else if (!getBit(c.present, slot)) {
+            setBit(c.present, slot, true);
+            c.live++;
+        }
+        if (ship.getShipType() != null) {
+            c.shipTypes[slot] = (byte) ship.getShipType().ordinal();
+        }
+        if (ship.getProdDate() != null) {
+            c.prodDays[slot] = day(ship.getProdDate().getTime());
+        }
+        if (ship.getUsed() != null) {
+            setBit(c.used, slot, ship.getUsed());
+        }
+        if (ship.getSpeed() != null) {
+            c.speeds[slot] = ship.getSpeed();
+        }
+        if (ship.getCrewSize() != null) {
+            c.crewSizes[slot] = ship.getCrewSize();
+        }
+        if (ship.getRating() != null) {
+            c.ratings[slot] = ship.getRating();
+        }
+    }
+
+    private boolean answerable(ShipFilter filter) {
+        return enabled && filter.getName() == null && filter.getPlanet() == null;
+    }
+
+    private static String sortField(Sort sort) {
+        if (sort.isUnsorted()) {
+            return "id";
+        }
+        Iterator<Sort.Order> orders = sort.iterator();
+        Sort.Order order = orders.next();
+        if (orders.hasNext() || order.isDescending() || sortKey(order.getProperty()) == null) {
+            return null;
+        }
+        return order.getProperty();
+    }
+
+    private static String sortKey(String sortField) {
+        switch (sortField) {
+            case "id":
+            case "speed":
+            case "prodDate":
+            case "rating":
+                return sortField;
+            default:
+                return null;
+        }
+    }
+
+    private long[] match(ShipFilter filter, int words) {
+        Columns c = columns;
+        long[] mask = scratch.get();
+        if (mask == null || mask.length < words) {
+            mask = new long[Math.max(words, 16)];
+            scratch.set(mask);
+        }
+        System.arraycopy(c.present, 0, mask, 0, words);
+
+        if (filter.getIds() != null) {
+            long[] ids = new long[words];
+            for (Long id : filter.getIds()) {
+                int slot = c.slot(id);
+                if (slot >= 0) {
+                    setBit(ids, slot, true);
+                }
+            }
+            for (int w = 0; w < words; w++) {
+                mask[w] &= ids[w];
+            }
+        }
+        if (filter.getShipType() != null) {
+            byte shipType = (byte) filter.getShipType().ordinal();
+            for (int w = 0; w < words; w++) {
+                if (mask[w] == 0) {
+                    continue;
+                }
+                int base = w << 6;
+                int end = Math.min(64, c.size - base);
+                long bits = 0;
+                for (int b = 0; b < end; b++) {
+                    bits |= (c.shipTypes[base + b] == shipType ? 1L : 0L) << b;
+                }
+                mask[w] &= bits;
+            }
+        }
+        if (filter.getAfter() != null || filter.getBefore() != null) {
+            int minDay = filter.getAfter() == null ? Integer.MIN_VALUE + 1 : minDay(filter.getAfter());
+            int maxDay = filter.getBefore() == null ? Integer.MAX_VALUE : day(filter.getBefore());
+            matchInts(mask, words, c.prodDays, c.size, minDay, maxDay);
+        }
+        if (filter.getIsUsed() != null) {
+            for (int w = 0; w < words; w++) {
+                mask[w] &= filter.getIsUsed() ? c.used[w] : ~c.used[w];
+            }
+        }
+        if (filter.getMinSpeed() != null || filter.getMaxSpeed() != null) {
+            matchDoubles(mask, words, c.speeds, c.size, filter.getMinSpeed(), filter.getMaxSpeed());
+        }
+        if (filter.getMinCrewSize() != null || filter.getMaxCrewSize() != null) {
+            matchInts(mask, words, c.crewSizes, c.size,
+                    filter.getMinCrewSize() == null ? Integer.MIN_VALUE + 1 : filter.getMinCrewSize(),
+                    filter.getMaxCrewSize() == null ? Integer.MAX_VALUE : filter.getMaxCrewSize());
+        }
+        if (filter.getMinRating() != null || filter.getMaxRating() != null) {
+            matchDoubles(mask, words, c.ratings, c.size, filter.getMinRating(), filter.getMaxRating());
+        }
+        return mask;
+    }
+
+    private static void matchInts(long[] mask, int words, int[] column, int size, int min, int max) {
+        for (int w = 0; w < words; w++) {
+            if (mask[w] == 0) {
+                continue;
+            }
+            int base = w << 6;
+            int end = Math.min(64, size - base);
+            long bits = 0;
+            for (int b = 0; b < end; b++) {
+                int value = column[base + b];
+                bits |= (value >= min & value <= max ? 1L : 0L) << b;
+            }
+            mask[w] &= bits;
+        }
+    }
+
+    private static void matchDoubles(long[] mask, int words, double[] column, int size, Double minValue, Double maxValue) {
+        double min = minValue == null ? Double.NEGATIVE_INFINITY : minValue;
+        double max = maxValue == null ? Double.POSITIVE_INFINITY : maxValue;
+        for (int w = 0; w < words; w++) {
+            if (mask[w] == 0) {
+                continue;
+            }
+            int base = w << 6;
+            int end = Math.min(64, size - base);
+            long bits = 0;
+            for (int b = 0; b < end; b++) {
+                double value = column[base + b];
+                bits |= (value >= min & value <= max ? 1L : 0L) << b;
+            }
+            mask[w] &= bits;
+        }
+    }
+
+    private long[] select(long[] mask, String sortField, ShipCursor cursor, long offset, int limit) {
+        Columns c = columns;
+        if ("id".equals(sortField)) {
+            int from = cursor == null ? 0 : c.slotAfter(cursor.getId());
+            int slot = nthSetBit(mask, c.size, from, offset);
+            long[] result = new long[limit];
+            int count = 0;
+            for (; slot >= 0 && count < limit; slot = nextSetBit(mask, c.size, slot + 1)) {
+                result[count++] = c.ids[slot];
+            }
+            return Arrays.copyOf(result, count);
+        }
+
+        IntToDoubleFunction key = key(c, sortField);
+        double cursorKey = cursor == null ? Double.NEGATIVE_INFINITY : cursorKey(cursor);
+        long cursorId = cursor == null ? Long.MIN_VALUE : cursor.getId();
+        long wanted = offset + limit;
+        int capacity = (int) Math.min(wanted, c.live);
+        int[] heap = new int[capacity];
+        int heapSize = 0;
+        if (capacity == 0) {
+            return new long[0];
+        }
+        for (int slot = nextSetBit(mask, c.size, 0); slot >= 0; slot = nextSetBit(mask, c.size, slot + 1)) {
+            double value = key.applyAsDouble(slot);
+            if (cursor != null && (value < cursorKey || (value == cursorKey && c.ids[slot] <= cursorId))) {
+                continue;
+            }
+            if (heapSize < capacity) {
+                heap[heapSize] = slot;
+                siftUp(heap, heapSize++, key);
+            } else if (before(slot, heap[0], key)) {
+                heap[0] = slot;
+                siftDown(heap, heapSize, key);
+            }
+        }
+        for (int end = heapSize - 1; end > 0; end--) {
+            int top = heap[0];
+            heap[0] = heap[end];
+            heap[end] = top;
+            siftDown(heap, end, key);
+        }
+        if (offset >= heapSize) {
+            return new long[0];
+        }
+        long[] result = new long[heapSize - (int) offset];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = c.ids[heap[(int) offset + i]];
+        }
+        return result;
+    }
+
+    private static IntToDoubleFunction key(Columns c, String sortField) {
+        switch (sortField) {
+            case "speed":
+                return slot -> c.speeds[slot];
+            case "prodDate":
+                return slot -> c.prodDays[slot];
+            default:
+                return slot -> c.ratings[slot];
+        }
+    }
+
+    private double cursorKey(ShipCursor cursor) {
+        if (!"prodDate".equals(cursor.getSortField())) {
+            return ((Number) cursor.getValue()).doubleValue();
+        }
+        long millis = ((Date) cursor.getValue()).getTime();
+        int day = minDay(millis);
+        return midnight(day) == millis ? day : day - 0.5;
+    }
+
+    private static boolean before(int a, int b, IntToDoubleFunction key) {
+        double first = key.applyAsDouble(a);
+        double second = key.applyAsDouble(b);
+        return first < second || (first == second && a < b);
+    }
+
+    private static void siftUp(int[] heap, int index, IntToDoubleFunction key) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!before(heap[parent], heap[index], key)) {
+                return;
+            }
+            int swap = heap[parent];
+            heap[parent] = heap[index];
+            heap[index] = swap;
+            index = parent;
+        }
+    }
+
+    private static void siftDown(int[] heap, int size, IntToDoubleFunction key) {
+        int index = 0;
+        while (true) {
+            int largest = index;
+            int left = 2 * index + 1;
+            int right = left + 1;
+            if (left < size && before(heap[largest], heap[left], key)) {
+                largest = left;
+            }
+            if (right < size && before(heap[largest], heap[right], key)) {
+                largest = right;
+            }
+            if (largest == index) {
+                return;
+            }
+            int swap = heap[largest];
+            heap[largest] = heap[index];
+            heap[index] = swap;
+            index = largest;
+        }
+    }
+
+    private int day(long millis) {
+        return (int) Instant.ofEpochMilli(millis).atZone(zone).toLocalDate().toEpochDay();
+    }
+
+    private int minDay(long millis) {
+        int day = day(millis);
+        return midnight(day) < millis ? day + 1 : day;
+    }
+
+    private long midnight(int day) {
+        return LocalDate.ofEpochDay(day).atStartOfDay(zone).toInstant().toEpochMilli();
+    }
+
+    private static int words(int bits) {
+        return (bits + 63) >>> 6;
+    }
+
+    private static boolean getBit(long[] bits, int index) {
+        return (bits[index >>> 6] & (1L << index)) != 0;
+    }
+
+    private static void setBit(long[] bits, int index, boolean value) {
+        if (value) {
+            bits[index >>> 6] |= 1L << index;
+        } else {
+            bits[index >>> 6] &= ~(1L << index);
+        }
+    }
+
+    private static int nextSetBit(long[] bits, int size, int from) {
+        if (from >= size) {
+            return -1;
+        }
+        int w = from >>> 6;
+        long word = bits[w] & (-1L << from);
+        while (word == 0) {
+            if (++w >= words(size)) {
+                return -1;
+            }
+            word = bits[w];
+        }
+        int index = (w << 6) + Long.numberOfTrailingZeros(word);
+        return index < size ? index : -1;
+    }
+
+    private static int nthSetBit(long[] bits, int size, int from, long n) {
+        int slot = nextSetBit(bits, size, from);
+        while (slot >= 0 && n > 0) {
+            int w = slot >>> 6;
+            int inWord = Long.bitCount(bits[w] & (-1L << slot));
+            if (inWord <= n) {
+                n -= inWord;
+                slot = nextSetBit(bits, size, (w + 1) << 6);
+            } else {
+                n--;
+                slot = nextSetBit(bits, size, slot + 1);
+            }
+        }
+        return slot;
+    }
+
+    private static void shiftUp(long[] bits, int from, int size) {
+        int first = from >>> 6;
+        for (int w = size >>> 6; w > first; w--) {
+            bits[w] = (bits[w] << 1) | (bits[w - 1] >>> 63);
+        }
+        long keep = (1L << from) - 1;
+        bits[first] = (bits[first] & keep) | ((bits[first] << 1) & ~keep & ~(1L << from));
+    }
+
+    private static class Columns {
+        private int size;
+        private int live;
+        private long[] ids;
+        private byte[] shipTypes;
+        private int[] prodDays;
+        private long[] used;
+        private double[] speeds;
+        private int[] crewSizes;
+        private double[] ratings;
+        private long[] present;
+
+        Columns(int capacity) {
+            ids = new long[capacity];
+            shipTypes = new byte[capacity];
+            prodDays = new int[capacity];
+            used = new long[words(capacity) + 1];
+            speeds = new double[capacity];
+            crewSizes = new int[capacity];
+            ratings = new double[capacity];
+            present = new long[words(capacity) + 1];
+        }
+
+        int slot(long id) {
+            return Arrays.binarySearch(ids, 0, size, id);
+        }
+
+        int slotAfter(long id) {
+            int slot = slot(id);
+            return slot >= 0 ? slot + 1 : -slot - 1;
+        }
+
+        void insert(int slot, long id) {
+            if (size == ids.length) {
+                grow(Math.max(16, size + (size >> 1)));
+            }
+            if (slot < size) {
+                System.arraycopy(ids, slot, ids, slot + 1, size - slot);
+                System.arraycopy(shipTypes, slot, shipTypes, slot + 1, size - slot);
+                System.arraycopy(prodDays, slot, prodDays, slot + 1, size - slot);
+                System.arraycopy(speeds, slot, speeds, slot + 1, size - slot);
+                System.arraycopy(crewSizes, slot, crewSizes, slot + 1, size - slot);
+                System.arraycopy(ratings, slot, ratings, slot + 1, size - slot);
+                shiftUp(used, slot, size);
+                shiftUp(present, slot, size);
+            }
+            ids[slot] = id;
+            setBit(used, slot, false);
+            setBit(present, slot, true);
+            size++;
+            live++;
+        }
+
+        void remove(int slot) {
+            if (getBit(present, slot)) {
+                setBit(present, slot, false);
+                live--;
+            }
+        }
+
+        void compactIfSparse() {
+            int dead = size - live;
+            if (dead < 1024 || dead < size / 4) {
+                return;
+            }
+            int target = 0;
+            for (int slot = 0; slot < size; slot++) {
+                if (!getBit(present, slot)) {
+                    continue;
+                }
+                ids[target] = ids[slot];
+                shipTypes[target] = shipTypes[slot];
+                prodDays[target] = prodDays[slot];
+                setBit(used, target, getBit(used, slot));
+                speeds[target] = speeds[slot];
+                crewSizes[target] = crewSizes[slot];
+                ratings[target] = ratings[slot];
+                target++;
+            }
+            Arrays.fill(present, 0);
+            for (int slot = 0; slot < target; slot++) {
+                setBit(present, slot, true);
+            }
+            for (int slot = target; slot < size; slot++) {
+                setBit(used, slot, false);
+            }
+            size = target;
+        }
+
+        long memoryBytes() {
+            return ids.length * (8L + 1 + 4 + 8 + 4 + 8) + (used.length + present.length) * 8L;
+        }
+
+        private void grow(int capacity) {
+            ids = Arrays.copyOf(ids, capacity);
+            shipTypes = Arrays.copyOf(shipTypes, capacity);
+            prodDays = Arrays.copyOf(prodDays, capacity);
+            used = Arrays.copyOf(used, words(capacity) + 1);
+            speeds = Arrays.copyOf(speeds, capacity);
+            crewSizes = Arrays.copyOf(crewSizes, capacity);
+            ratings = Arrays.copyOf(ratings, capacity);
+            present = Arrays.copyOf(present, words(capacity) + 1);
+        }
+    }
+
+    public static class Stats {
+        private boolean enabled;
+        private boolean ready;
+        private int ships;
+        private int slots;
+        private long memoryBytes;
+        private long lastBuildMillis;
+        private long answeredQueries;
+    }
+}
@@ -0,0 +1,274 @@
+package com.space.service;
+
+import com.space.model.Ship;
+import com.space.model.ShipType;
+import com.space.repository.ShipFilter;
+import com.space.repository.ShipRepository;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+@Component
+public class ShipCounters implements SmartInitializingSingleton, DisposableBean {
+    private static final ShipType[] SHIP_TYPES = ShipType.values();
+
+    private final ShipRepository shipRepository;
+    private final long reconcileSeconds;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "ship-counters");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile LongAdder[] cells;
+    private volatile boolean dirty = true;
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicBoolean reconciling = new AtomicBoolean();
+    private final AtomicBoolean reconcileQueued = new AtomicBoolean();
+    private final AtomicLong reloads = new AtomicLong();
+    private final LongAdder reconciliations = new LongAdder();
+    private volatile long lastDrift;
+    private volatile long lastReconcileAt;
+
+    @Autowired
+    public ShipCounters(ShipRepository shipRepository,
+                        @Value("${cosmoport.counters.reconcile-seconds:300}") long reconcileSeconds) {
+        this.shipRepository = shipRepository;
+        this.reconcileSeconds = reconcileSeconds;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        reconcile();
+        if (reconcileSeconds > 0) {
+            executor.scheduleWithFixedDelay(this::tryReconcile, reconcileSeconds, reconcileSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    public long count(ShipFilter filter) {
+        String shape = filter.shape();
+        if (!shape.isEmpty() && !shape.equals("shipType") && !shape.equals("isUsed") && !shape.equals("shipType,isUsed")) {
+            return -1;
+        }
+        if (dirty) {
+            reconcileInBackground();
+            return -1;
+        }
+        LongAdder[] current = cells;
+        long count = 0;
+        for (ShipType shipType : SHIP_TYPES) {
+            if (filter.getShipType() != null && filter.getShipType() != shipType) {
+                continue;
+            }
+            if (filter.getIsUsed() == null || !filter.getIsUsed()) {
+                count += current[cell(shipType, false)].sum();
+            }
+            if (filter.getIsUsed() == null || filter.getIsUsed()) {
+                count += current[cell(shipType, true)].sum();
+            }
+        }
+        return dirty ? -1 : count;
+    }
+
+    // Counted while the writing transaction is still open, so a reconcile can tell
+    // whether a change it may already have scanned is still on its way to onShipEvent.
+    @EventListener
+    public void onShipEventPublished(ShipEvent event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            published.incrementAndGet();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION)
+    public void onShipEventCompleted(ShipEvent event) {
+        completed.incrementAndGet();
+        if (event.getType() == ShipEvent.Type.RELOADED) {
+            reloads.incrementAndGet();
+            reconcile();
+        }
+    }
+
+    @TransactionalEventListener
+    public void onShipEvent(ShipEvent event) {
+        LongAdder[] current = cells;
+        switch (event.getType()) {
+            case CREATED:
+                add(current, event.getShip(), 1);
+                break;
+            case BATCH_CREATED:
+                for (Ship ship : event.getShips()) {
+                    add(current, ship, 1);
+                }
+                break;
+            case BULK_UPDATED:
+                for (Ship ship : event.getPreviousShips()) {
+                    add(current, ship, -1);
+                }
+                for (Ship ship : event.getShips()) {
+                    add(current, ship, 1);
+                }
+                break;
+            case BULK_DELETED:
+                for (Ship ship : event.getPreviousShips()) {
+                    add(current, ship, -1);
+                }
+                break;
+            case UPDATED:
+                add(current, event.getPrevious(), -1);
+                add(current, event.getShip(), 1);
+                break;
+            case PATCHED:
+                Ship changes = event.getShip();
+                if (changes.getShipType() == null && changes.getUsed() == null) {
+                    return;
+                }
+                Ship previous = event.getPrevious();
+                if (previous == null) {
+                    markDirty();
+                    break;
+                }
+                Ship patched = new Ship(previous);
+                if (changes.getShipType() != null) {
+                    patched.setShipType(changes.getShipType());
+                }
+                if (changes.getUsed() != null) {
+                    patched.setUsed(changes.getUsed());
+                }
+                add(current, previous, -1);
+                add(current, patched, 1);
+                break;
+            case DELETED:
+                if (event.getPrevious() == null) {
+                    markDirty();
+                } else {
+                    add(current, event.getPrevious(), -1);
+                }
+                break;
+            case RATINGS_CHANGED:
+            case RELOADED:
+                return;
+            default:
+                markDirty();
+        }
+    }
+
+    public synchronized void reconcile() {
+        long startCompleted = completed.get();
+        long startPublished = published.get();
+        LongAdder[] loaded = new LongAdder[SHIP_TYPES.length * 2];
+        for (int i = 0; i < loaded.length; i++) {
+            loaded[i] = new LongAdder();
+        }
+        for (Object[] row : shipRepository.countGroupedByShipTypeAndUsed()) {
+            if (row[0] != null) {
+                loaded[cell((ShipType) row[0], Boolean.TRUE.equals(row[1]))].add((Long) row[2]);
+            }
+        }
+
+        LongAdder[] previous = cells;
+        long drift = 0;
+        if (previous != null && !dirty) {
+            for (int i = 0; i < loaded.length; i++) {
+                drift += Math.abs(loaded[i].sum() - previous[i].sum());
+            }
+        }
+        cells = loaded;
+        // A change committed before the scan may still be delivered to onShipEvent after the swap
+        // and would be counted twice, so only trust the scan if nothing was in flight around it.
+        dirty = startPublished != startCompleted || published.get() != startPublished;
+        lastDrift = drift;
+        lastReconcileAt = System.currentTimeMillis();
+        reconciliations.increment();
+    }
+
+    public Stats stats() {
+        Stats stats = new Stats();
+        stats.dirty = dirty;
+        stats.reconciliations = reconciliations.sum();
+        stats.lastDrift = lastDrift;
+        stats.lastReconcileAt = lastReconcileAt;
+        stats.cells = new LinkedHashMap<>();
+        LongAdder[] current = cells;
+        if (current != null) {
+            for (ShipType shipType : SHIP_TYPES) {
+                stats.cells.put(shipType + "|used", current[cell(shipType, true)].sum());
+                stats.cells.put(shipType + "|new", current[cell(shipType, false)].sum());
+            }
+        }
+        return stats;
+    }
+
+    private void markDirty() {
+        dirty = true;
+    }
+
+    // Counting falls back to the database until this lands; a reload in between makes it redundant.
+    private void reconcileInBackground() {
+        if (!reconcileQueued.compareAndSet(false, true)) {
+            return;
+        }
+        long requestedAt = reloads.get();
+        try {
+            executor.execute(() -> {
+                reconcileQueued.set(false);
+                if (dirty && reloads.get() == requestedAt) {
+                    tryReconcile();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            reconcileQueued.set(false);
+        }
+    }
+
+    private boolean tryReconcile() {
+        if (!reconciling.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            reconcile();
+        } finally {
+            reconciling.set(false);
+        }
+        return !dirty;
+    }
+
+    private static void add(LongAdder[] current, Ship ship, int delta) {
+        if (current != null && ship != null && ship.getShipType() != null && ship.getUsed() != null) {
+            current[cell(ship.getShipType(), ship.getUsed())].add(delta);
+        }
+    }
+
+    private static int cell(ShipType shipType, boolean used) {
+        return shipType.ordinal() * 2 + (used ? 1 : 0);
+    }
+
+    public static class Stats {
+        private boolean dirty;
+        private long reconciliations;
+        private long lastDrift;
+        private long lastReconcileAt;
+        private Map<String, Long> cells;
+    }
+}
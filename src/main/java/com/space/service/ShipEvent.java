@@ -0,0 +1,131 @@
+package com.space.service;
+
+import com.space.model.Ship;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class ShipEvent {
+    public enum Type {
+        CREATED,
+        BATCH_CREATED,
+        UPDATED,
+        PATCHED,
+        DELETED,
+        BULK_UPDATED,
+        BULK_DELETED,
+        BULK_CHANGED,
+        RATINGS_CHANGED,
+        RELOADED
+    }
+
+    private final Type type;
+    private final Long id;
+    private final Ship ship;
+    private final Ship previous;
+    private final Long afterId;
+    private final Long lastId;
+    private final List<Ship> ships;
+    private final List<Ship> previousShips;
+
+    private ShipEvent(Type type, Long id, Ship ship) {
+        this(type, id, ship, null, null, null);
+    }
+
+    private ShipEvent(Type type, Long id, Ship ship, Ship previous, Long afterId, Long lastId) {
+        this(type, id, ship, previous, afterId, lastId, null, null);
+    }
+
+    private ShipEvent(Type type, Long id, Ship ship, Ship previous, Long afterId, Long lastId,
+                      List<Ship> ships, List<Ship> previousShips) {
+        this.type = type;
+        this.id = id;
+        this.ship = ship;
+        this.previous = previous;
+        this.afterId = afterId;
+        this.lastId = lastId;
+        this.ships = ships;
+        this.previousShips = previousShips;
+    }
+
+    public static ShipEvent created(Ship ship) {
+        return new ShipEvent(Type.CREATED, ship.getId(), new Ship(ship));
+    }
+
+    public static ShipEvent batchCreated(List<Ship> ships) {
+        return new ShipEvent(Type.BATCH_CREATED, null, null, null, null, null, copyOf(ships), null);
+    }
+
+    public static ShipEvent updated(Ship ship, Ship previous) {
+        return new ShipEvent(Type.UPDATED, ship.getId(), new Ship(ship), new Ship(previous), null, null);
+    }
+
+    public static ShipEvent patched(Long id, Ship changes, Ship previous) {
+        return new ShipEvent(Type.PATCHED, id, new Ship(changes), previous == null ? null : new Ship(previous), null, null);
+    }
+
+    public static ShipEvent deleted(Long id, Ship previous) {
+        return new ShipEvent(Type.DELETED, id, null, previous == null ? null : new Ship(previous), null, null);
+    }
+
+    public static ShipEvent bulkUpdated(List<Ship> ships, List<Ship> previousShips) {
+        return new ShipEvent(Type.BULK_UPDATED, null, null, null, null, null, copyOf(ships), copyOf(previousShips));
+    }
+
+    public static ShipEvent bulkDeleted(List<Ship> previousShips) {
+        return new ShipEvent(Type.BULK_DELETED, null, null, null, null, null, null, copyOf(previousShips));
+    }
+
+    public static ShipEvent bulkChanged() {
+        return new ShipEvent(Type.BULK_CHANGED, null, null);
+    }
+
+    public static ShipEvent ratingsChanged(long afterId, long lastId) {
+        return new ShipEvent(Type.RATINGS_CHANGED, null, null, null, afterId, lastId);
+    }
+
+    public static ShipEvent reloaded() {
+        return new ShipEvent(Type.RELOADED, null, null);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Ship getShip() {
+        return ship;
+    }
+
+    public Ship getPrevious() {
+        return previous;
+    }
+
+    public Long getAfterId() {
+        return afterId;
+    }
+
+    public Long getLastId() {
+        return lastId;
+    }
+
+    public List<Ship> getShips() {
+        return ships;
+    }
+
+    public List<Ship> getPreviousShips() {
+        return previousShips;
+    }
+
+    private static List<Ship> copyOf(List<Ship> ships) {
+        List<Ship> copies = new ArrayList<>(ships.size());
+        for (Ship ship : ships) {
+            copies.add(new Ship(ship));
+        }
+        return Collections.unmodifiableList(copies);
+    }
+}
@@ -0,0 +1,184 @@
+package com.space.service;
+
+import com.space.model.Ship;
+import com.space.model.ShipGroupStats;
+import com.space.model.ShipPage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+@Component
+public class ShipQueryCache {
+    private static final int ENTRY_OVERHEAD_BYTES = 96;
+    private static final int SHIP_BYTES = 240;
+
+    private final int maxSize;
+    private final Map<String, Entry> entries;
+    private final AtomicLong generation = new AtomicLong();
+    private long estimatedBytes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public ShipQueryCache(@Value("${cosmoport.cache.queries.max-size:1000}") int maxSize) {
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > ShipQueryCache.this.maxSize) {
+                    estimatedBytes -= eldest.getValue().bytes;
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public List<Ship> getShips(String key, Supplier<List<Ship>> loader) {
+        List<Ship> ships = lookup(key);
+        if (ships == null) {
+            long startGeneration = generation.get();
+            ships = loader.get();
+            store(key, copyOf(ships), startGeneration, ships.size());
+            return ships;
+        }
+        return copyOf(ships);
+    }
+
+    public long getCount(String key, LongSupplier loader) {
+        Long count = lookup(key);
+        if (count == null) {
+            long startGeneration = generation.get();
+            count = loader.getAsLong();
+            store(key, count, startGeneration, 0);
+        }
+        return count;
+    }
+
+    public ShipPage getPage(String key, Supplier<ShipPage> loader) {
+        ShipPage page = lookup(key);
+        if (page == null) {
+            long startGeneration = generation.get();
+            page = loader.get();
+            store(key, new ShipPage(copyOf(page.getShips()), page.getCount()), startGeneration, page.getShips().size());
+            return page;
+        }
+        return new ShipPage(copyOf(page.getShips()), page.getCount());
+    }
+
+    public List<ShipGroupStats> getGroupStats(String key, Supplier<List<ShipGroupStats>> loader) {
+        List<ShipGroupStats> stats = lookup(key);
+        if (stats == null) {
+            long startGeneration = generation.get();
+            stats = Collections.unmodifiableList(loader.get());
+            store(key, stats, startGeneration, stats.size());
+        }
+        return stats;
+    }
+
+    @TransactionalEventListener
+    public void onShipEvent(ShipEvent event) {
+        generation.incrementAndGet();
+        if (event.getType() == ShipEvent.Type.RELOADED || event.getType() == ShipEvent.Type.BULK_CHANGED
+                || event.getType() == ShipEvent.Type.BULK_UPDATED || event.getType() == ShipEvent.Type.BULK_DELETED) {
+            synchronized (entries) {
+                entries.clear();
+                estimatedBytes = 0;
+            }
+        }
+    }
+
+    public Stats stats() {
+        Stats stats = new Stats();
+        synchronized (entries) {
+            stats.size = entries.size();
+            stats.estimatedBytes = estimatedBytes;
+        }
+        stats.maxSize = maxSize;
+        stats.generation = generation.get();
+        stats.hits = hits.sum();
+        stats.misses = misses.sum();
+        stats.evictions = evictions.sum();
+        long requests = stats.hits + stats.misses;
+        stats.hitRatio = requests == 0 ? 0 : (double) stats.hits / requests;
+        return stats;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T lookup(String key) {
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.generation != generation.get()) {
+                entries.remove(key);
+                estimatedBytes -= entry.bytes;
+                entry = null;
+            }
+            if (entry == null) {
+                misses.increment();
+                return null;
+            }
+            hits.increment();
+            return (T) entry.value;
+        }
+    }
+
+    private void store(String key, Object value, long startGeneration, int shipCount) {
+        if (maxSize <= 0) {
+            return;
+        }
+        long bytes = ENTRY_OVERHEAD_BYTES + 2L * key.length() + (long) SHIP_BYTES * shipCount;
+        synchronized (entries) {
+            if (generation.get() != startGeneration) {
+                return;
+            }
+            Entry previous = entries.put(key, new Entry(value, startGeneration, bytes));
+            if (previous != null) {
+                estimatedBytes -= previous.bytes;
+            }
+            estimatedBytes += bytes;
+        }
+    }
+
+    private static List<Ship> copyOf(List<Ship> ships) {
+        List<Ship> copy = new ArrayList<>(ships.size());
+        for (Ship ship : ships) {
+            copy.add(new Ship(ship));
+        }
+        return copy;
+    }
+
+    private static class Entry {
+        private final Object value;
+        private final long generation;
+        private final long bytes;
+
+        Entry(Object value, long generation, long bytes) {
+            this.value = value;
+            this.generation = generation;
+            this.bytes = bytes;
+        }
+    }
+
+    public static class Stats {
+        private int size;
+        private int maxSize;
+        private long generation;
+        private long estimatedBytes;
+        private long hits;
+        private long misses;
+        private long evictions;
+        private double hitRatio;
+    }
+}
@@ -3,37 +3,158 @@ package com.space.service;
 import com.space.exceptions.BadRequestException;
 import com.space.exceptions.NotFoundException;
 import com.space.model.Ship;
-import com.space.model.ShipType;
+import com.space.model.ShipBatchResult;
+import com.space.model.ShipGroupStats;
+import com.space.model.ShipImportResult;
+import com.space.model.ShipPage;
+import com.space.repository.ShipCursor;
+import com.space.repository.ShipFilter;
+import com.space.repository.ShipGrouping;
 import com.space.repository.ShipRepository;
+import com.space.repository.ShipRepositoryCustom;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.ZoneId;
-import java.util.Date;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
 @Service
 @Transactional
 public class ShipService {
+    public static final int MIN_PROD_YEAR = 2800;
+    public static final int MAX_PROD_YEAR = 3019;
+
     private final ShipRepository shipRepository;
+    private final ShipCache shipCache;
+    private final ShipQueryCache shipQueryCache;
+    private final ShipTextIndex shipTextIndex;
+    private final ShipColumnStore shipColumnStore;
+    private final ShipCounters shipCounters;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate snapshotTransaction;
+    private final TransactionTemplate batchTransaction;
+    private final int importBatchSize;
+    private final int maxReportedFailures;
+    private final int maxBulkEventRows;
+    private volatile int ratingYear;
 
     @Autowired
-    public ShipService(ShipRepository shipRepository) {
+    public ShipService(ShipRepository shipRepository, ShipCache shipCache, ShipQueryCache shipQueryCache,
+                       ShipTextIndex shipTextIndex, ShipColumnStore shipColumnStore, ShipCounters shipCounters,
+                       ApplicationEventPublisher eventPublisher, PlatformTransactionManager transactionManager,
+                       @Value("${cosmoport.import.batch-size:1000}") int importBatchSize,
+                       @Value("${cosmoport.import.max-reported-failures:100}") int maxReportedFailures,
+                       @Value("${cosmoport.bulk.max-event-rows:10000}") int maxBulkEventRows,
+                       @Value("${cosmoport.rating.reference-year:3019}") int ratingYear) {
         this.shipRepository = shipRepository;
+        this.shipCache = shipCache;
+        this.shipQueryCache = shipQueryCache;
+        this.shipTextIndex = shipTextIndex;
+        this.shipColumnStore = shipColumnStore;
+        this.shipCounters = shipCounters;
+        this.eventPublisher = eventPublisher;
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setReadOnly(true);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.batchTransaction = new TransactionTemplate(transactionManager);
+        this.importBatchSize = importBatchSize;
+        this.maxReportedFailures = maxReportedFailures;
+        this.maxBulkEventRows = maxBulkEventRows;
+        this.ratingYear = ratingYear;
+    }
+
+    public Ship createShip(Ship ship) {
+        prepareNewShip(ship);
+        Ship savedShip = shipRepository.save(ship);
+        eventPublisher.publishEvent(ShipEvent.created(savedShip));
+        return savedShip;
     }
 
-    public List<Ship> getAllShips(Pageable pageable) {
-        if (pageable == null) {
-            return shipRepository.getAll();
-        } else {
-            return shipRepository.findAll(pageable).getContent();
+    public ShipBatchResult createShips(List<Ship> ships) {
+        ShipBatchResult result = new ShipBatchResult();
+        List<Ship> valid = new ArrayList<>(ships.size());
+        for (int i = 0; i < ships.size(); i++) {
+            Ship ship = ships.get(i);
+            if (ship == null) {
+                result.addFailure(i, "empty item");
+                continue;
+            }
+            try {
+                prepareNewShip(ship);
+            } catch (BadRequestException e) {
+                result.addFailure(i, "invalid ship parameters");
+                continue;
+            }
+            ship.setId(null);
+            valid.add(ship);
+        }
+        shipRepository.insertAll(valid);
+        if (!valid.isEmpty()) {
+            eventPublisher.publishEvent(ShipEvent.batchCreated(valid));
         }
+        result.getCreated().addAll(valid);
+        return result;
     }
 
-    public Ship createShip(Ship ship) {
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ShipImportResult importShips(ShipReader reader) throws IOException {
+        ShipImportResult result = new ShipImportResult(maxReportedFailures);
+        List<Ship> batch = new ArrayList<>(importBatchSize);
+        for (int row = 1; reader.hasNext(); row++) {
+            Ship ship;
+            try {
+                ship = reader.next();
+            } catch (IllegalArgumentException e) {
+                result.addFailure(row, "malformed record");
+                continue;
+            }
+            try {
+                prepareNewShip(ship);
+            } catch (BadRequestException e) {
+                result.addFailure(row, "invalid ship parameters");
+                continue;
+            }
+            ship.setId(null);
+            batch.add(ship);
+            if (batch.size() == importBatchSize) {
+                insertBatch(batch, result);
+            }
+        }
+        insertBatch(batch, result);
+        return result;
+    }
+
+    private void insertBatch(List<Ship> batch, ShipImportResult result) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        batchTransaction.execute(status -> {
+            shipRepository.insertAll(batch);
+            eventPublisher.publishEvent(ShipEvent.batchCreated(batch));
+            return null;
+        });
+        result.addImported(batch.size());
+        batch.clear();
+    }
+
+    private void prepareNewShip(Ship ship) {
         if (isValidByParams(ship)) {
             throw new BadRequestException();
         } else if (ship.getUsed() == null) {
@@ -41,172 +162,356 @@ public class ShipService {
         }
         ship.setSpeed(Math.round(ship.getSpeed() * 100) / 100.0);
         ship.setRating(computeRating(ship));
-        return shipRepository.save(ship);
     }
 
     public Ship updateShip(Ship ship, Long id) {
-        Ship modernizedShip = getShipById(id);
+        Ship modernizedShip = loadShip(id);
+        validateChanges(ship);
+        Ship previous = new Ship(modernizedShip);
 
         if (ship.getName() != null) {
-            if (ship.getName().length() > 50 || ship.getName().isEmpty()) {
-                throw new BadRequestException();
-            }
             modernizedShip.setName(ship.getName());
         }
         if (ship.getPlanet() != null) {
-            if (ship.getPlanet().length() > 50 || ship.getPlanet().isEmpty()) {
-                throw new BadRequestException();
-            }
             modernizedShip.setPlanet(ship.getPlanet());
         }
         if (ship.getShipType() != null) {
             modernizedShip.setShipType(ship.getShipType());
         }
         if (ship.getProdDate() != null) {
-            if (ship.getProdDate().toInstant().atZone(ZoneId.systemDefault()).toLocalDate().getYear() < 2800
-                    || ship.getProdDate().toInstant().atZone(ZoneId.systemDefault()).toLocalDate().getYear() > 3019) {
-                throw new BadRequestException();
-            }
             modernizedShip.setProdDate(ship.getProdDate());
         }
         if (ship.getUsed() != null) {
             modernizedShip.setUsed(ship.getUsed());
         }
         if (ship.getSpeed() != null) {
-            if (ship.getSpeed() < 0.01d || ship.getSpeed() > 0.99d) {
-                throw new BadRequestException();
-            }
             modernizedShip.setSpeed(ship.getSpeed());
         }
         if (ship.getCrewSize() != null) {
-            if (ship.getCrewSize() < 1 || ship.getCrewSize() > 9999) {
-                throw new BadRequestException();
-            }
             modernizedShip.setCrewSize(ship.getCrewSize());
         }
 
         modernizedShip.setRating(computeRating(modernizedShip));
-        return shipRepository.save(modernizedShip);
+        Ship savedShip = shipRepository.save(modernizedShip);
+        eventPublisher.publishEvent(ShipEvent.updated(savedShip, previous));
+        return savedShip;
+    }
+
+    public void patchShip(Ship ship, Long id) {
+        if (id < 0) {
+            throw new BadRequestException();
+        }
+        validateChanges(ship);
+
+        Ship changes = new Ship(ship);
+        changes.setId(null);
+        changes.setRating(null);
+        if (changes.getName() == null && changes.getPlanet() == null && changes.getShipType() == null
+                && changes.getProdDate() == null && changes.getUsed() == null && changes.getSpeed() == null
+                && changes.getCrewSize() == null) {
+            throw new BadRequestException();
+        }
+
+        Ship current = null;
+        boolean ratingChanged = changes.getProdDate() != null || changes.getUsed() != null || changes.getSpeed() != null;
+        // the counters also need the previous shipType/isUsed to move the ship between cells
+        if (changes.getShipType() != null || ratingChanged) {
+            current = shipRepository.findByIdForUpdate(id).orElseThrow(NotFoundException::new);
+        }
+        if (ratingChanged) {
+            Ship ratingInputs = new Ship(changes);
+            if (ratingInputs.getProdDate() == null) {
+                ratingInputs.setProdDate(current.getProdDate());
+            }
+            if (ratingInputs.getUsed() == null) {
+                ratingInputs.setUsed(current.getUsed());
+            }
+            if (ratingInputs.getSpeed() == null) {
+                ratingInputs.setSpeed(current.getSpeed());
+            }
+            changes.setRating(computeRating(ratingInputs));
+        }
+
+        if (shipRepository.updateById(id, changes) == 0) {
+            throw new NotFoundException();
+        }
+        eventPublisher.publishEvent(ShipEvent.patched(id, changes, current));
+    }
+
+    private void validateChanges(Ship ship) {
+        if (ship.getName() != null && (ship.getName().length() > 50 || ship.getName().isEmpty())) {
+            throw new BadRequestException();
+        }
+        if (ship.getPlanet() != null && (ship.getPlanet().length() > 50 || ship.getPlanet().isEmpty())) {
+            throw new BadRequestException();
+        }
+        if (ship.getProdDate() != null
+                && (ship.getProdDate().toInstant().atZone(ZoneId.systemDefault()).toLocalDate().getYear() < MIN_PROD_YEAR
+                || ship.getProdDate().toInstant().atZone(ZoneId.systemDefault()).toLocalDate().getYear() > MAX_PROD_YEAR)) {
+            throw new BadRequestException();
+        }
+        if (ship.getSpeed() != null && (ship.getSpeed() < 0.01d || ship.getSpeed() > 0.99d)) {
+            throw new BadRequestException();
+        }
+        if (ship.getCrewSize() != null && (ship.getCrewSize() < 1 || ship.getCrewSize() > 9999)) {
+            throw new BadRequestException();
+        }
     }
 
     public void deleteShip(Long id){
         if(id < 0 ){
             throw new BadRequestException();
         }
-        if(!shipRepository.existsById(id)){
+        // the cached copy lets the counters decrement without another statement; a miss only costs a reconcile
+        Ship previous = shipCache.peek(id);
+        if(shipRepository.deleteShipById(id) == 0){
             throw new NotFoundException();
         }
-        shipRepository.deleteById(id);
+        eventPublisher.publishEvent(ShipEvent.deleted(id, previous));
     }
 
-    public Ship getShipById(Long id){
-        if(id < 0){
+    public int deleteShipsByFilter(ShipFilter filter){
+        if(!filter.hasCriteria()){
             throw new BadRequestException();
         }
+        List<Ship> previous = lockAffected(filter);
+        int affected = shipRepository.deleteByFilter(filter);
+        if(affected > 0){
+            eventPublisher.publishEvent(bulkEvent(previous, affected, null));
+        }
+        return affected;
+    }
 
-        if(!shipRepository.existsById(id)){
-            throw new NotFoundException();
+    public int updateShipsByFilter(ShipFilter filter, Ship changes){
+        if(!filter.hasCriteria()){
+            throw new BadRequestException();
+        }
+        if(changes.getId() != null || changes.getName() != null || changes.getProdDate() != null
+                || changes.getSpeed() != null || changes.getCrewSize() != null || changes.getRating() != null){
+            throw new BadRequestException();
+        }
+        if(changes.getPlanet() == null && changes.getShipType() == null && changes.getUsed() == null){
+            throw new BadRequestException();
+        }
+        if(changes.getPlanet() != null && (changes.getPlanet().length() > 50 || changes.getPlanet().isEmpty())){
+            throw new BadRequestException();
+        }
+        List<Ship> previous = lockAffected(filter);
+        int affected = shipRepository.updateByFilter(filter, changes, ratingYear);
+        if(affected > 0){
+            eventPublisher.publishEvent(bulkEvent(previous, affected, changes));
+        }
+        return affected;
+    }
+
+    // Filters matching more rows than an event may carry skip the locking read; they end in a full reload anyway.
+    private List<Ship> lockAffected(ShipFilter filter){
+        if(shipRepository.countByFilter(filter) > maxBulkEventRows){
+            return null;
+        }
+        return shipRepository.findByFilterForUpdate(filter, maxBulkEventRows + 1);
+    }
+
+    // Rows locked before the bulk statement are exactly the ones it touched unless the
+    // limit was hit or the counts disagree; then listeners fall back to a full reload.
+    private ShipEvent bulkEvent(List<Ship> previous, int affected, Ship changes){
+        if(previous == null || previous.size() > maxBulkEventRows || previous.size() != affected){
+            return ShipEvent.bulkChanged();
+        }
+        if(changes == null){
+            return ShipEvent.bulkDeleted(previous);
+        }
+        List<Ship> ships = new ArrayList<>(previous.size());
+        for(Ship ship : previous){
+            Ship updated = new Ship(ship);
+            if(changes.getPlanet() != null){
+                updated.setPlanet(changes.getPlanet());
+            }
+            if(changes.getShipType() != null){
+                updated.setShipType(changes.getShipType());
+            }
+            if(changes.getUsed() != null){
+                updated.setUsed(changes.getUsed());
+                updated.setRating(computeRating(updated));
+            }
+            ships.add(updated);
+        }
+        return ShipEvent.bulkUpdated(ships, previous);
+    }
+
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Ship getShipById(Long id){
+        Ship cached = shipCache.get(id);
+        if(cached != null){
+            return cached;
         }
+        long stamp = shipCache.stamp();
+        Ship ship = loadShip(id);
+        shipCache.putIfUnchanged(ship, stamp);
+        return ship;
+    }
 
-        return shipRepository.findById(id).orElse(null);
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public int getRatingYear(){
+        return ratingYear;
     }
 
-    public List<Ship> getShipByNamePageNumber(String name, Pageable pageable){
-        return shipRepository.filterByNamePageNumber(name, pageable);
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public void setRatingYear(int ratingYear){
+        this.ratingYear = ratingYear;
     }
 
-    public List<Ship> getShipByPlanetPageSize(String planet, Pageable pageable){
-        return shipRepository.filterByPlanetPageSize(planet, pageable);
+    public void reload(){
+        eventPublisher.publishEvent(ShipEvent.reloaded());
     }
 
-    public List<Ship> getShipByAfterBeforeShipType(Date after, Date before, ShipType shipType, Pageable pageable){
-        return shipRepository.filterByAfterBeforeShipType(after, before, shipType, pageable);
+    private Ship loadShip(Long id){
+        if(id < 0){
+            throw new BadRequestException();
+        }
+
+        return shipRepository.findById(id).orElseThrow(NotFoundException::new);
     }
 
-    public List<Ship> getShipByMinMaxSpeedShipType(double minSpeed, double maxSpeed, ShipType shipType, Pageable pageable){
-        return shipRepository.filterByMinMaxSpeedShipType(minSpeed, maxSpeed, shipType, pageable);
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<Ship> getShipsByFilters(ShipFilter filter, Pageable pageable){
+        return shipQueryCache.getShips("list|" + filter + "|" + pageKey(pageable),
+                () -> findByFilter(narrow(filter), pageable));
     }
 
-    public List<Ship> getShipByMinMaxCrewSizeShipType(int minCrewSize, int maxCrewSize, ShipType shipType, Pageable pageable){
-        return shipRepository.filterByMinMaxCrewSizeShipType(minCrewSize, maxCrewSize, shipType, pageable);
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<Ship> getShipsByFiltersAfter(ShipFilter filter, String sortField, ShipCursor cursor, int pageSize){
+        if(cursor != null && !cursor.getSortField().equals(sortField)){
+            throw new BadRequestException();
+        }
+        String key = "seek|" + filter + "|" + sortField + "|" + (cursor == null ? "" : cursor.encode()) + "|" + pageSize;
+        return shipQueryCache.getShips(key, () -> {
+            ShipFilter narrowed = narrow(filter);
+            if(matchesNothing(narrowed)){
+                return new ArrayList<>();
+            }
+            long[] ids = shipColumnStore.findIdsAfter(narrowed, sortField, cursor, pageSize);
+            return ids != null ? loadShips(ids) : shipRepository.findByFilterAfter(narrowed, sortField, cursor, pageSize);
+        });
+    }
+
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public long getShipsCountByFilters(ShipFilter filter){
+        return shipQueryCache.getCount("count|" + filter, () -> countByFilter(narrow(filter)));
     }
 
-    public List<Ship> getShipByMinMaxRatingIsUsed(double minRating, double maxRating, boolean isUsed, Pageable pageable){
-        return shipRepository.filterByMinMaxRatingIsUsed(minRating, maxRating, isUsed, pageable);
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public ShipPage searchShips(ShipFilter filter, Pageable pageable){
+        return shipQueryCache.getPage("search|" + filter + "|" + pageKey(pageable),
+                () -> {
+                    ShipFilter narrowed = narrow(filter);
+                    if(matchesNothing(narrowed)){
+                        return new ShipPage(new ArrayList<>(), 0);
+                    }
+                    // the column store and counters live outside the snapshot, so both halves go to the database
+                    return snapshotTransaction.execute(status -> new ShipPage(
+                            shipRepository.findByFilter(narrowed, pageable), shipRepository.countByFilter(narrowed)));
+                });
     }
 
-    public List<Ship> getShipByMaxSpeedMaxRatingIsUsed(double maxSpeed, double maxRating, boolean isUsed, Pageable pageable){
-        return shipRepository.filterByMaxSpeedMaxRatingIsUsed(maxSpeed, maxRating, isUsed, pageable);
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<ShipGroupStats> getShipStats(ShipFilter filter, ShipGrouping grouping){
+        return shipQueryCache.getGroupStats("stats|" + filter + "|" + grouping, () -> {
+            ShipFilter narrowed = narrow(filter);
+            return matchesNothing(narrowed) ? new ArrayList<>() : shipRepository.aggregateByFilter(narrowed, grouping);
+        });
     }
 
-    public List<Ship> getShipByAfterBeforeMinMaxCrewSize(Date after, Date before, int minCrewSize, int maxCrewSize, Pageable pageable){
-        return shipRepository.filterByAfterBeforeMinMaxCrewSize(after, before, minCrewSize, maxCrewSize, pageable);
+    @Transactional(readOnly = true)
+    public void exportShips(ShipFilter filter, ShipRepositoryCustom.ShipHandler handler) throws IOException {
+        ShipFilter narrowed = narrow(filter);
+        if(!matchesNothing(narrowed)){
+            shipRepository.scanByFilter(narrowed, handler);
+        }
     }
 
-    public List<Ship> getShipMinCrewSizeMinSpeedMinRating(int minCrewSize, double minSpeed, double minRating, Pageable pageable){
-        return shipRepository.filterByMinCrewSizeMinSpeedMinRating(minCrewSize, minSpeed, minRating , pageable);
+    private List<Ship> findByFilter(ShipFilter filter, Pageable pageable){
+        if(matchesNothing(filter)){
+            return new ArrayList<>();
+        }
+        long[] ids = shipColumnStore.findIds(filter, pageable);
+        return ids != null ? loadShips(ids) : shipRepository.findByFilter(filter, pageable);
     }
 
-    public List<Ship> getShipByNameAfterMaxRating(String name, Date after, double maxRating, Pageable pageable){
-        return shipRepository.filterByNameAfterMaxRating(name, after, maxRating, pageable);
+    private long countByFilter(ShipFilter filter){
+        if(matchesNothing(filter)){
+            return 0;
+        }
+        long count = shipCounters.count(filter);
+        if(count >= 0){
+            return count;
+        }
+        count = shipColumnStore.count(filter);
+        return count >= 0 ? count : shipRepository.countByFilter(filter);
     }
 
-    public List<Ship> getShipByShipTypeIsUsed(ShipType shipType, boolean isUsed, Pageable pageable){
-        return shipRepository.filterByShipTypeIsUsed(shipType, isUsed, pageable);
+    private List<Ship> loadShips(long[] ids){
+        if(ids.length == 0){
+            return new ArrayList<>();
+        }
+        Map<Long, Ship> loaded = new HashMap<>();
+        for(Ship ship : shipRepository.findAllById(LongStream.of(ids).boxed().collect(Collectors.toList()))){
+            loaded.put(ship.getId(), ship);
+        }
+        List<Ship> ships = new ArrayList<>(ids.length);
+        for(long id : ids){
+            Ship ship = loaded.get(id);
+            if(ship != null){
+                ships.add(ship);
+            }
+        }
+        return ships;
     }
 
-    public List<Ship> getShipByMaxCrewSizeShipType(int maxCrewSize, ShipType shipType, Pageable pageable){
-        return shipRepository.filterByMaxCrewSizeShipType(maxCrewSize, shipType, pageable);
+    private static boolean matchesNothing(ShipFilter filter){
+        return filter.getIds() != null && filter.getIds().isEmpty();
     }
 
-    public List<Ship> getShipByBeforeMaxSpeedShipType(Date before, double maxSpeed, ShipType shipType, Pageable pageable){
-        return shipRepository.filterByBeforeMaxSpeedShipType(before, maxSpeed, shipType, pageable);
+    private ShipFilter narrow(ShipFilter filter){
+        long[] candidates = intersect(
+                shipTextIndex.candidates(ShipTextIndex.Field.NAME, filter.getName()),
+                shipTextIndex.candidates(ShipTextIndex.Field.PLANET, filter.getPlanet()));
+        if(candidates == null){
+            return filter;
+        }
+        if(filter.getIds() != null){
+            candidates = intersect(candidates, filter.getIds().stream().mapToLong(Long::longValue).sorted().toArray());
+        }
+        ShipFilter narrowed = new ShipFilter(filter);
+        narrowed.setIds(LongStream.of(candidates).boxed().collect(Collectors.toList()));
+        return narrowed;
     }
 
-    public List<Ship> getShipByMinMaxSpeedIsUsed(double minSpeed, double maxSpeed, boolean isUsed, Pageable pageable){
-        return shipRepository.filterByMinMaxSpeedIsUsed(minSpeed, maxSpeed, isUsed, pageable);
+    private static long[] intersect(long[] first, long[] second){
+        if(first == null || second == null){
+            return first == null ? second : first;
+        }
+        long[] result = new long[Math.min(first.length, second.length)];
+        int count = 0;
+        for(int i = 0, j = 0; i < first.length && j < second.length;){
+            if(first[i] < second[j]){
+                i++;
+            } else if(first[i] > second[j]){
+                j++;
+            } else {
+                result[count++] = first[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, count);
     }
 
-    public List<Ship> getShipsByFilters(Optional<String> name, Optional<String>  planet,
-                                        Optional<ShipType> shipType, Optional<Long> after,
-                                        Optional<Long>  before, Optional<Boolean> isUsed,
-                                        Optional<Double> minSpeed, Optional<Double>  maxSpeed,
-                                        Optional<Integer> minCrewSize, Optional<Integer> maxCrewSize,
-                                        Optional<Double>  minRating, Optional<Double>  maxRating,
-                                        Pageable pageable){
-        List<Ship> shipList;;
-        if(planet.isPresent()) {
-            shipList = getShipByPlanetPageSize(planet.get(), pageable);
-        } else if(after.isPresent() && before.isPresent() && shipType.isPresent()) {
-            shipList = getShipByAfterBeforeShipType(new Date(after.get()), new Date(before.get()), shipType.get(), pageable);
-        } else if(minSpeed.isPresent() && maxSpeed.isPresent() && shipType.isPresent()) {
-            shipList = getShipByMinMaxSpeedShipType(minSpeed.get(), maxSpeed.get(), shipType.get(), pageable);
-        } else if(minCrewSize.isPresent() && maxCrewSize.isPresent() && shipType.isPresent()) {
-            shipList = getShipByMinMaxCrewSizeShipType(minCrewSize.get(), maxCrewSize.get(), shipType.get(), pageable);
-        } else if(minRating.isPresent() && maxRating.isPresent() & isUsed.isPresent()) {
-            shipList = getShipByMinMaxRatingIsUsed(minRating.get(), maxRating.get(), isUsed.get(), pageable);
-        } else if(maxSpeed.isPresent() && maxRating.isPresent() && isUsed.isPresent()) {
-            shipList = getShipByMaxSpeedMaxRatingIsUsed(maxSpeed.get(), maxRating.get(), isUsed.get(), pageable);
-        } else if(after.isPresent() && before.isPresent() && minCrewSize.isPresent() && maxCrewSize.isPresent()) {
-            shipList = getShipByAfterBeforeMinMaxCrewSize(new Date(after.get()), new Date(before.get()), minCrewSize.get(), maxCrewSize.get(), pageable);
-        } else if(minCrewSize.isPresent() && minSpeed.isPresent() && minRating.isPresent()) {
-            shipList = getShipMinCrewSizeMinSpeedMinRating(minCrewSize.get(), minSpeed.get(), minRating.get(), pageable);
-        } else if(name.isPresent() && after.isPresent() && maxRating.isPresent()) {
-            shipList = getShipByNameAfterMaxRating(name.get(), new Date(after.get()), maxRating.get(), pageable);
-        } else if(shipType.isPresent() && isUsed.isPresent()) {
-            shipList = getShipByShipTypeIsUsed(shipType.get(), isUsed.get(), pageable);
-        } else if(maxCrewSize.isPresent() && shipType.isPresent()){
-            shipList = getShipByMaxCrewSizeShipType(maxCrewSize.get(), shipType.get(), pageable);
-        } else if(before.isPresent() && maxSpeed.isPresent() && shipType.isPresent()){
-            shipList = getShipByBeforeMaxSpeedShipType(new Date(before.get()), maxSpeed.get(), shipType.get(), pageable);
-        } else if(minSpeed.isPresent() && maxSpeed.isPresent() && isUsed.isPresent()){
-            shipList = getShipByMinMaxSpeedIsUsed(minSpeed.get(), maxSpeed.get(), isUsed.get(), pageable);
-        } else if(name.isPresent()) {
-            shipList = getShipByNamePageNumber(name.get(), pageable);
-        } else {
-            shipList = getAllShips(pageable);
+    private static String pageKey(Pageable pageable){
+        if(pageable == null || pageable.isUnpaged()){
+            return "unpaged";
         }
-        return shipList;
+        return pageable.getSort() + "|" + pageable.getPageNumber() + "|" + pageable.getPageSize();
     }
 
     public boolean isValidByParams(Ship ship){
@@ -218,8 +523,8 @@ public class ShipService {
                 || ship.getPlanet().length() > 50)
                 || ship.getShipType() == null
                 || (ship.getProdDate() == null
-                || ship.getProdDate().toInstant().atZone(ZoneId.systemDefault()).toLocalDate().getYear() < 2800
-                || ship.getProdDate().toInstant().atZone(ZoneId.systemDefault()).toLocalDate().getYear() > 3019)
+                || ship.getProdDate().toInstant().atZone(ZoneId.systemDefault()).toLocalDate().getYear() < MIN_PROD_YEAR
+                || ship.getProdDate().toInstant().atZone(ZoneId.systemDefault()).toLocalDate().getYear() > MAX_PROD_YEAR)
                 || ship.getSpeed() == null
                 || ship.getSpeed() < 0.01d
                 || ship.getSpeed() > 0.99d
@@ -228,14 +533,21 @@ public class ShipService {
                 || ship.getCrewSize() > 9999;
     }
 
-    private Double computeRating(Ship ship) {
+    Double computeRating(Ship ship) {
         double k = 1.0;
         if(ship.getUsed()){
             k = 0.5;
         }
-        int currentYear = 3019;
+        int currentYear = ratingYear;
         int productionDate = ship.getProdDate().toInstant().atZone(ZoneId.systemDefault()).toLocalDate().getYear();
         double rating = (80 * ship.getSpeed() * k) / (double) (currentYear - productionDate + 1);
-        return Math.round(rating * 100) / 100.0;
+        return BigDecimal.valueOf(rating).setScale(2, RoundingMode.HALF_UP).doubleValue();
+    }
+
+    public interface ShipReader {
+        boolean hasNext() throws IOException;
+
+        // Throws IllegalArgumentException for a record that cannot be read as a ship.
+        Ship next();
     }
 }
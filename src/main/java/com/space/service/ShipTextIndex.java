@@ -0,0 +1,378 @@
+package com.space.service;
+
+import com.space.model.Ship;
+import com.space.repository.ShipRepository;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Component
+public class ShipTextIndex implements SmartInitializingSingleton, DisposableBean {
+    public enum Field {
+        NAME,
+        PLANET
+    }
+
+    private static final int GRAM = 3;
+
+    private final ShipRepository shipRepository;
+    private final int maxCandidates;
+
+    private final ExecutorService rebuilder = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "ship-text-index");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object rebuildLock = new Object();
+    private final AtomicBoolean rebuildQueued = new AtomicBoolean();
+    private Map<Field, Map<Long, IdList>> postings = emptyIndex();
+    private Map<Field, Map<Long, String>> values = emptyIndex();
+    private boolean ready;
+    private List<ShipEvent> pending;
+    private long lastBuildMillis;
+
+    @Autowired
+    public ShipTextIndex(ShipRepository shipRepository,
+                         @Value("${cosmoport.text-index.max-candidates:10000}") int maxCandidates) {
+        this.shipRepository = shipRepository;
+        this.maxCandidates = maxCandidates;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    @Override
+    public void destroy() {
+        rebuilder.shutdownNow();
+    }
+
+    public long[] candidates(Field field, String substring) {
+        if (substring == null || substring.indexOf('%') >= 0 || substring.indexOf('_') >= 0) {
+            return null;
+        }
+        String text = normalize(substring);
+        if (text.length() < GRAM) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            if (!ready) {
+                return null;
+            }
+            Map<Long, IdList> fieldPostings = postings.get(field);
+            List<IdList> lists = new ArrayList<>();
+            for (int i = 0; i + GRAM <= text.length(); i++) {
+                IdList list = fieldPostings.get(gram(text, i));
+                if (list == null) {
+                    return new long[0];
+                }
+                lists.add(list);
+            }
+            lists.sort((a, b) -> Integer.compare(a.size, b.size));
+            if (lists.get(0).size > maxCandidates) {
+                return null;
+            }
+            long[] result = Arrays.copyOf(lists.get(0).ids, lists.get(0).size);
+            for (int i = 1; i < lists.size() && result.length > 0; i++) {
+                result = lists.get(i).retainAll(result);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener
+    public void onShipEvent(ShipEvent event) {
+        if (event.getType() == ShipEvent.Type.RELOADED) {
+            rebuild();
+            return;
+        }
+        if (event.getType() == ShipEvent.Type.BULK_CHANGED) {
+            rebuildInBackground();
+            return;
+        }
+        if (event.getType() == ShipEvent.Type.RATINGS_CHANGED) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (pending != null) {
+                pending.add(event);
+            }
+            if (ready) {
+                apply(postings, values, event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            lock.writeLock().lock();
+            try {
+                ready = false;
+                pending = new ArrayList<>();
+                postings = emptyIndex();
+                values = emptyIndex();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            load();
+        }
+    }
+
+    // Builds the replacement off the event thread; until it is swapped in, searches fall back to the database
+    // rather than answer from postings that miss the committed bulk change.
+    private void rebuildInBackground() {
+        lock.writeLock().lock();
+        try {
+            ready = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (!rebuildQueued.compareAndSet(false, true)) {
+            return;
+        }
+        rebuilder.execute(() -> {
+            synchronized (rebuildLock) {
+                rebuildQueued.set(false);
+                lock.writeLock().lock();
+                try {
+                    pending = new ArrayList<>();
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                load();
+            }
+        });
+    }
+
+    private void load() {
+        long start = System.currentTimeMillis();
+        Map<Field, Map<Long, IdList>> loadedPostings = emptyIndex();
+        Map<Field, Map<Long, String>> loadedValues = emptyIndex();
+        try {
+            shipRepository.scanText((id, name, planet) -> {
+                add(loadedPostings, loadedValues, Field.NAME, id, name);
+                add(loadedPostings, loadedValues, Field.PLANET, id, planet);
+            });
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                ready = false;
+                pending = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            for (ShipEvent event : pending) {
+                apply(loadedPostings, loadedValues, event);
+            }
+            postings = loadedPostings;
+            values = loadedValues;
+            pending = null;
+            ready = true;
+            lastBuildMillis = System.currentTimeMillis() - start;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Stats stats() {
+        Stats stats = new Stats();
+        lock.readLock().lock();
+        try {
+            stats.ready = ready;
+            stats.ships = values.get(Field.NAME).size();
+            stats.nameGrams = postings.get(Field.NAME).size();
+            stats.planetGrams = postings.get(Field.PLANET).size();
+            stats.lastBuildMillis = lastBuildMillis;
+        } finally {
+            lock.readLock().unlock();
+        }
+        return stats;
+    }
+
+    private static void apply(Map<Field, Map<Long, IdList>> postings,
+                              Map<Field, Map<Long, String>> values, ShipEvent event) {
+        if (event.getType() == ShipEvent.Type.BATCH_CREATED) {
+            for (Ship ship : event.getShips()) {
+                add(postings, values, Field.NAME, ship.getId(), ship.getName());
+                add(postings, values, Field.PLANET, ship.getId(), ship.getPlanet());
+            }
+            return;
+        }
+        if (event.getType() == ShipEvent.Type.BULK_UPDATED) {
+            for (Ship ship : event.getShips()) {
+                replace(postings, values, Field.NAME, ship.getId(), ship.getName());
+                replace(postings, values, Field.PLANET, ship.getId(), ship.getPlanet());
+            }
+            return;
+        }
+        if (event.getType() == ShipEvent.Type.BULK_DELETED) {
+            for (Ship ship : event.getPreviousShips()) {
+                remove(postings, values, Field.NAME, ship.getId());
+                remove(postings, values, Field.PLANET, ship.getId());
+            }
+            return;
+        }
+        if (event.getType() == ShipEvent.Type.PATCHED) {
+            replace(postings, values, Field.NAME, event.getId(), event.getShip().getName());
+            replace(postings, values, Field.PLANET, event.getId(), event.getShip().getPlanet());
+            return;
+        }
+        for (Field field : Field.values()) {
+            remove(postings, values, field, event.getId());
+        }
+        if (event.getType() != ShipEvent.Type.DELETED) {
+            add(postings, values, Field.NAME, event.getId(), event.getShip().getName());
+            add(postings, values, Field.PLANET, event.getId(), event.getShip().getPlanet());
+        }
+    }
+
+    private static void replace(Map<Field, Map<Long, IdList>> postings,
+                                Map<Field, Map<Long, String>> values, Field field, long id, String value) {
+        if (value != null) {
+            remove(postings, values, field, id);
+            add(postings, values, field, id, value);
+        }
+    }
+
+    private static void add(Map<Field, Map<Long, IdList>> postings,
+                            Map<Field, Map<Long, String>> values, Field field, long id, String value) {
+        if (value == null) {
+            return;
+        }
+        String text = normalize(value);
+        values.get(field).put(id, text);
+        Map<Long, IdList> fieldPostings = postings.get(field);
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            fieldPostings.computeIfAbsent(gram(text, i), k -> new IdList()).add(id);
+        }
+    }
+
+    private static void remove(Map<Field, Map<Long, IdList>> postings,
+                               Map<Field, Map<Long, String>> values, Field field, long id) {
+        String text = values.get(field).remove(id);
+        if (text == null) {
+            return;
+        }
+        Map<Long, IdList> fieldPostings = postings.get(field);
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            long gram = gram(text, i);
+            IdList list = fieldPostings.get(gram);
+            if (list != null && list.remove(id) && list.size == 0) {
+                fieldPostings.remove(gram);
+            }
+        }
+    }
+
+    private static <T> Map<Field, Map<Long, T>> emptyIndex() {
+        Map<Field, Map<Long, T>> index = new HashMap<>();
+        for (Field field : Field.values()) {
+            index.put(field, new HashMap<>());
+        }
+        return index;
+    }
+
+    private static long gram(String text, int offset) {
+        return ((long) text.charAt(offset) << 32) | ((long) text.charAt(offset + 1) << 16) | text.charAt(offset + 2);
+    }
+
+    private static String normalize(String value) {
+        return Normalizer.normalize(value, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT);
+    }
+
+    private static class IdList {
+        private long[] ids = new long[4];
+        private int size;
+
+        void add(long id) {
+            if (size > 0 && ids[size - 1] < id) {
+                grow();
+                ids[size++] = id;
+                return;
+            }
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index >= 0) {
+                return;
+            }
+            index = -index - 1;
+            grow();
+            System.arraycopy(ids, index, ids, index + 1, size - index);
+            ids[index] = id;
+            size++;
+        }
+
+        boolean remove(long id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            size--;
+            return true;
+        }
+
+        long[] retainAll(long[] sorted) {
+            long[] result = new long[Math.min(sorted.length, size)];
+            int count = 0;
+            int i = 0;
+            int j = 0;
+            while (i < sorted.length && j < size) {
+                if (sorted[i] < ids[j]) {
+                    i++;
+                } else if (sorted[i] > ids[j]) {
+                    j++;
+                } else {
+                    result[count++] = sorted[i];
+                    i++;
+                    j++;
+                }
+            }
+            return Arrays.copyOf(result, count);
+        }
+
+        private void grow() {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+        }
+    }
+
+    public static class Stats {
+        private boolean ready;
+        private int ships;
+        private int nameGrams;
+        private int planetGrams;
+        private long lastBuildMillis;
+    }
+}
@@ -0,0 +1,10 @@
+-- shipType filter with a prodDate range (after/before)
+CREATE INDEX ix_ship_type_prod_date ON ship (shipType, prodDate);
+-- shipType filter with a speed range or order=SPEED
+CREATE INDEX ix_ship_type_speed ON ship (shipType, speed);
+-- isUsed filter with a rating range or order=RATING
+CREATE INDEX ix_ship_used_rating ON ship (isUsed, rating);
+-- unfiltered order=SPEED/DATE/RATING pages and keyset cursors (sortKey, id)
+CREATE INDEX ix_ship_speed ON ship (speed, id);
+CREATE INDEX ix_ship_prod_date ON ship (prodDate, id);
+CREATE INDEX ix_ship_rating ON ship (rating, id);
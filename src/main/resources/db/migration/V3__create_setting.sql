@@ -0,0 +1,6 @@
+CREATE TABLE IF NOT EXISTS setting
+(
+    name         VARCHAR(50)  NOT NULL,
+    settingValue VARCHAR(255) NULL,
+    PRIMARY KEY (name)
+);
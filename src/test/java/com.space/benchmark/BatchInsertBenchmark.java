@@ -0,0 +1,65 @@
+package com.space.benchmark;
+
+import com.space.controller.utils.AsyncMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+
+import java.util.Collections;
+import java.util.StringJoiner;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Compares inserting ships one POST /rest/ships at a time with POST /rest/ships/batch.
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.space.benchmark.BatchInsertBenchmark -Dexec.args="10000"}.
+ */
+public class BatchInsertBenchmark {
+    private static final String SHIP_JSON = "{\"name\":\"Ship %d\",\"planet\":\"Earth\",\"shipType\":\"MERCHANT\","
+            + "\"prodDate\":32998274577071,\"isUsed\":false,\"speed\":0.5,\"crewSize\":100}";
+
+    public static void main(String[] args) throws Exception {
+        int ships = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+
+        AnnotationConfigWebApplicationContext context = Benchmarks.devContext(Collections.emptyMap());
+        try {
+            AsyncMockMvc mockMvc = new AsyncMockMvc(MockMvcBuilders.webAppContextSetup(context).build());
+            single(mockMvc, 1000);
+            batch(mockMvc, 1000);
+
+            long singleNanos = single(mockMvc, ships);
+            long batchNanos = batch(mockMvc, ships);
+            System.out.printf("single: %d ships in %d ms (%.0f ships/s)%n", ships, singleNanos / 1000000, ships * 1e9 / singleNanos);
+            System.out.printf("batch:  %d ships in %d ms (%.0f ships/s)%n", ships, batchNanos / 1000000, ships * 1e9 / batchNanos);
+            System.out.printf("speedup: %.1fx%n", singleNanos / (double) batchNanos);
+        } finally {
+            context.close();
+        }
+    }
+
+    private static long single(AsyncMockMvc mockMvc, int ships) throws Exception {
+        long start = System.nanoTime();
+        for (int i = 0; i < ships; i++) {
+            mockMvc.perform(post("/rest/ships")
+                    .contentType(MediaType.APPLICATION_JSON_UTF8)
+                    .content(String.format(SHIP_JSON, i)))
+                    .andExpect(status().isOk());
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static long batch(AsyncMockMvc mockMvc, int ships) throws Exception {
+        StringJoiner body = new StringJoiner(",", "[", "]");
+        for (int i = 0; i < ships; i++) {
+            body.add(String.format(SHIP_JSON, i));
+        }
+        long start = System.nanoTime();
+        mockMvc.perform(post("/rest/ships/batch")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content(body.toString()))
+                .andExpect(status().isOk());
+        return System.nanoTime() - start;
+    }
+}
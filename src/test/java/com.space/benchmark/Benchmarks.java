@@ -0,0 +1,33 @@
+package com.space.benchmark;
+
+import com.space.config.AppConfig;
+import com.space.config.WebConfig;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+
+import java.util.Map;
+
+final class Benchmarks {
+
+    private Benchmarks() {
+    }
+
+    static AnnotationConfigWebApplicationContext devContext(Map<String, Object> properties) {
+        AnnotationConfigWebApplicationContext context = new AnnotationConfigWebApplicationContext();
+        context.setServletContext(new MockServletContext());
+        context.getEnvironment().setActiveProfiles("dev");
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("benchmark", properties));
+        context.register(AppConfig.class, WebConfig.class);
+        context.refresh();
+        return context;
+    }
+
+    static long percentile(long[] sorted, int percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(index, 0)];
+    }
+}
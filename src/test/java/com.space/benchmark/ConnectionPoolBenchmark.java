@@ -0,0 +1,86 @@
+package com.space.benchmark;
+
+import com.space.controller.utils.AsyncMockMvc;
+import com.space.model.ShipType;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Compares the unpooled and the pooled dev data source under concurrent GET /rest/ships load.
+ * The query cache is turned off and each request picks a random page and ship type, so every request
+ * borrows a connection instead of being answered from memory.
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.space.benchmark.ConnectionPoolBenchmark -Dexec.args="16 10"}
+ * where the arguments are the number of client threads and the measured seconds per run.
+ */
+public class ConnectionPoolBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+        run("unpooled", false, threads, seconds);
+        run("pooled", true, threads, seconds);
+    }
+
+    private static void run(String label, boolean pooled, int threads, int seconds) throws Exception {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("cosmoport.datasource.dev-pooled", pooled);
+        properties.put("cosmoport.cache.queries.max-size", 0);
+        AnnotationConfigWebApplicationContext context = Benchmarks.devContext(properties);
+        try {
+            AsyncMockMvc mockMvc = new AsyncMockMvc(MockMvcBuilders.webAppContextSetup(context).build());
+            load(mockMvc, threads, 2);
+            long[] latencies = load(mockMvc, threads, seconds);
+
+            Arrays.sort(latencies);
+            System.out.printf("%-9s threads=%d requests=%d throughput=%.0f req/s p50=%dus p95=%dus p99=%dus%n",
+                    label, threads, latencies.length, latencies.length / (double) seconds,
+                    Benchmarks.percentile(latencies, 50), Benchmarks.percentile(latencies, 95), Benchmarks.percentile(latencies, 99));
+            System.out.println("          pool: " + mockMvc.perform(get("/rest/admin/pool"))
+                    .andReturn().getResponse().getContentAsString());
+        } finally {
+            context.close();
+        }
+    }
+
+    private static long[] load(AsyncMockMvc mockMvc, int threads, int seconds) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        List<Future<List<Long>>> futures = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            futures.add(executor.submit(() -> {
+                List<Long> latencies = new ArrayList<>();
+                while (System.nanoTime() < deadline) {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    String url = "/rest/ships?pageNumber=" + random.nextInt(10)
+                            + "&shipType=" + ShipType.values()[random.nextInt(ShipType.values().length)];
+                    long start = System.nanoTime();
+                    mockMvc.perform(get(url)).andExpect(status().isOk());
+                    latencies.add(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+                }
+                return latencies;
+            }));
+        }
+        List<Long> all = new ArrayList<>();
+        for (Future<List<Long>> future : futures) {
+            all.addAll(future.get());
+        }
+        executor.shutdown();
+        return all.stream().mapToLong(Long::longValue).toArray();
+    }
+}
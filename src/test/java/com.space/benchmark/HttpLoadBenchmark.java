@@ -0,0 +1,309 @@
+package com.space.benchmark;
+
+import com.space.config.AppConfig;
+import com.space.config.WebConfig;
+import com.space.controller.ShipOrder;
+import com.space.model.ShipType;
+import org.apache.catalina.Context;
+import org.apache.catalina.Wrapper;
+import org.apache.catalina.startup.Tomcat;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+import org.springframework.web.servlet.DispatcherServlet;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Boots the application with the dev profile in an embedded Tomcat, seeds it over HTTP and drives an
+ * open-loop mix of list, count, get, create, update and delete requests at a fixed rate.
+ * Latency is measured from each request's scheduled start, so queueing behind a slow server is included.
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.space.benchmark.HttpLoadBenchmark
+ * -Dexec.args="ships=10000 rate=200 seconds=30 threads=32 mix=list:45,count:15,get:25,create:5,update:5,delete:5"}.
+ * Add {@code pooled=true} to run against the Hikari-pooled dev data source.
+ * The query cache is off by default so list and count requests reach the database; add
+ * {@code queryCache=true} to measure with it. The per-id ship cache stays on in both cases.
+ */
+public class HttpLoadBenchmark {
+    private static final String SHIP_JSON = "{\"name\":\"Load %d\",\"planet\":\"Earth\",\"shipType\":\"%s\","
+            + "\"prodDate\":32998274577071,\"isUsed\":%b,\"speed\":0.%02d,\"crewSize\":%d}";
+    private static final Pattern ID = Pattern.compile("\"id\":(\\d+)");
+
+    private final String baseUrl;
+    private final Map<String, Integer> mix;
+    private final Map<String, Endpoint> endpoints = new LinkedHashMap<>();
+    private final ConcurrentLinkedQueue<Long> createdIds = new ConcurrentLinkedQueue<>();
+    private long seededIds;
+
+    private HttpLoadBenchmark(String baseUrl, Map<String, Integer> mix) {
+        this.baseUrl = baseUrl;
+        this.mix = mix;
+        for (String operation : mix.keySet()) {
+            endpoints.put(operation, new Endpoint());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            String[] pair = arg.split("=", 2);
+            options.put(pair[0], pair.length > 1 ? pair[1] : "");
+        }
+        int ships = Integer.parseInt(options.getOrDefault("ships", "10000"));
+        int rate = Integer.parseInt(options.getOrDefault("rate", "200"));
+        int seconds = Integer.parseInt(options.getOrDefault("seconds", "30"));
+        int threads = Integer.parseInt(options.getOrDefault("threads", "32"));
+        boolean pooled = Boolean.parseBoolean(options.getOrDefault("pooled", "false"));
+        boolean queryCache = Boolean.parseBoolean(options.getOrDefault("queryCache", "false"));
+        Map<String, Integer> mix = parseMix(options.getOrDefault("mix", "list:45,count:15,get:25,create:5,update:5,delete:5"));
+
+        Tomcat tomcat = startServer(pooled, queryCache);
+        try {
+            HttpLoadBenchmark benchmark = new HttpLoadBenchmark(
+                    "http://localhost:" + tomcat.getConnector().getLocalPort() + "/rest/ships", mix);
+            benchmark.seed(ships);
+            benchmark.run(rate, Math.min(5, seconds), threads);
+            benchmark.reset();
+            long elapsedNanos = benchmark.run(rate, seconds, threads);
+            System.out.printf("pooled=%b queryCache=%b%n", pooled, queryCache);
+            benchmark.report(rate, threads, elapsedNanos);
+        } finally {
+            tomcat.stop();
+            tomcat.destroy();
+        }
+    }
+
+    private static Tomcat startServer(boolean pooled, boolean queryCache) throws Exception {
+        AnnotationConfigWebApplicationContext context = new AnnotationConfigWebApplicationContext();
+        context.getEnvironment().setActiveProfiles("dev");
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("cosmoport.datasource.dev-pooled", pooled);
+        if (!queryCache) {
+            properties.put("cosmoport.cache.queries.max-size", 0);
+        }
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("benchmark", properties));
+        context.register(AppConfig.class, WebConfig.class);
+
+        Tomcat tomcat = new Tomcat();
+        tomcat.setBaseDir(Files.createTempDirectory("cosmoport-tomcat").toString());
+        tomcat.setPort(0);
+        tomcat.getConnector();
+        Context servletContext = tomcat.addContext("", null);
+        servletContext.setParentClassLoader(HttpLoadBenchmark.class.getClassLoader());
+        Wrapper dispatcher = Tomcat.addServlet(servletContext, "dispatcher", new DispatcherServlet(context));
+        dispatcher.setLoadOnStartup(1);
+        dispatcher.setAsyncSupported(true);
+        servletContext.addServletMappingDecoded("/", "dispatcher");
+        tomcat.start();
+        return tomcat;
+    }
+
+    private static Map<String, Integer> parseMix(String value) {
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        for (String entry : value.split(",")) {
+            String[] pair = entry.split(":");
+            if (!Arrays.asList("list", "count", "get", "create", "update", "delete").contains(pair[0])) {
+                throw new IllegalArgumentException("Unknown operation " + pair[0]);
+            }
+            mix.put(pair[0], Integer.parseInt(pair[1]));
+        }
+        return mix;
+    }
+
+    private void seed(int ships) throws IOException {
+        for (int from = 0; from < ships; from += 1000) {
+            StringJoiner body = new StringJoiner(",", "[", "]");
+            for (int i = from; i < Math.min(from + 1000, ships); i++) {
+                body.add(shipJson(i));
+            }
+            Response response = send("POST", baseUrl + "/batch", body.toString());
+            if (response.status != 200) {
+                throw new IllegalStateException("Seeding failed with status " + response.status);
+            }
+        }
+        seededIds = Long.parseLong(send("GET", baseUrl + "/count", null).body.trim());
+    }
+
+    private long run(int rate, int seconds, int threads) throws InterruptedException {
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.SECONDS.toNanos(seconds);
+        int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+        for (long scheduled = start; scheduled < deadline; scheduled += intervalNanos) {
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            String operation = pick(ThreadLocalRandom.current().nextInt(total));
+            long scheduledStart = scheduled;
+            workers.execute(() -> execute(operation, scheduledStart));
+        }
+        workers.shutdown();
+        workers.awaitTermination(1, TimeUnit.MINUTES);
+        return System.nanoTime() - start;
+    }
+
+    private String pick(int roll) {
+        for (Map.Entry<String, Integer> entry : mix.entrySet()) {
+            roll -= entry.getValue();
+            if (roll < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException();
+    }
+
+    private void execute(String operation, long scheduledStart) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Response response;
+        try {
+            switch (operation) {
+                case "list":
+                    ShipOrder order = ShipOrder.values()[random.nextInt(ShipOrder.values().length)];
+                    String filter = random.nextBoolean() ? "&shipType=" + randomType() : "";
+                    response = send("GET", baseUrl + "?pageNumber=" + random.nextInt(10) + "&pageSize=10&order=" + order + filter, null);
+                    break;
+                case "count":
+                    response = send("GET", baseUrl + "/count?shipType=" + randomType() + "&isUsed=" + random.nextBoolean(), null);
+                    break;
+                case "get":
+                    response = send("GET", baseUrl + "/" + (1 + random.nextLong(seededIds)), null);
+                    break;
+                case "update":
+                    response = send("POST", baseUrl + "/" + (1 + random.nextLong(seededIds)),
+                            "{\"name\":\"Updated " + random.nextInt(1000) + "\",\"speed\":0." + (10 + random.nextInt(89)) + "}");
+                    break;
+                case "delete":
+                    Long id = createdIds.poll();
+                    if (id != null) {
+                        response = send("DELETE", baseUrl + "/" + id, null);
+                        break;
+                    }
+                    operation = "create";
+                case "create":
+                    response = send("POST", baseUrl, shipJson(random.nextInt(1000000)));
+                    Matcher matcher = ID.matcher(response.body);
+                    if (matcher.find()) {
+                        createdIds.add(Long.valueOf(matcher.group(1)));
+                    }
+                    break;
+                default:
+                    throw new IllegalStateException(operation);
+            }
+        } catch (IOException e) {
+            response = new Response(-1, "");
+        }
+        endpoints.get(mix.containsKey(operation) ? operation : "delete")
+                .record(System.nanoTime() - scheduledStart, response.status >= 200 && response.status < 300);
+    }
+
+    private void reset() {
+        for (String operation : endpoints.keySet()) {
+            endpoints.put(operation, new Endpoint());
+        }
+    }
+
+    private void report(int rate, int threads, long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        System.out.printf("target rate=%d req/s threads=%d seeded ships=%d elapsed=%.1fs%n", rate, threads, seededIds, seconds);
+        System.out.printf("%-8s %9s %7s %10s %9s %9s %9s %9s%n", "endpoint", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        List<Long> all = new ArrayList<>();
+        long errors = 0;
+        for (Map.Entry<String, Endpoint> entry : endpoints.entrySet()) {
+            long[] latencies = entry.getValue().sorted();
+            errors += entry.getValue().errors;
+            for (long latency : latencies) {
+                all.add(latency);
+            }
+            print(entry.getKey(), latencies, entry.getValue().errors, seconds);
+        }
+        print("total", all.stream().mapToLong(Long::longValue).sorted().toArray(), errors, seconds);
+    }
+
+    private static void print(String name, long[] latencies, long errors, double seconds) {
+        System.out.printf("%-8s %9d %7d %10.1f %9.2f %9.2f %9.2f %9.2f%n", name, latencies.length, errors, latencies.length / seconds,
+                Benchmarks.percentile(latencies, 50) / 1e6, Benchmarks.percentile(latencies, 95) / 1e6,
+                Benchmarks.percentile(latencies, 99) / 1e6, (latencies.length == 0 ? 0 : latencies[latencies.length - 1]) / 1e6);
+    }
+
+    private static String randomType() {
+        return ShipType.values()[ThreadLocalRandom.current().nextInt(ShipType.values().length)].name();
+    }
+
+    private static String shipJson(int i) {
+        return String.format(SHIP_JSON, i, ShipType.values()[i % ShipType.values().length], i % 2 == 0, 1 + i % 99, 1 + i % 9999);
+    }
+
+    private static Response send(String method, String url, String body) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        connection.setRequestMethod(method);
+        if (body != null) {
+            connection.setDoOutput(true);
+            connection.setRequestProperty("Content-Type", "application/json;charset=UTF-8");
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(body.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        int status = connection.getResponseCode();
+        InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+        if (in == null) {
+            return new Response(status, "");
+        }
+        try (InputStream stream = in) {
+            byte[] buffer = new byte[8192];
+            StringBuilder content = new StringBuilder();
+            for (int read; (read = stream.read(buffer)) != -1; ) {
+                content.append(new String(buffer, 0, read, StandardCharsets.UTF_8));
+            }
+            return new Response(status, content.toString());
+        }
+    }
+
+    private static class Response {
+        private final int status;
+        private final String body;
+
+        Response(int status, String body) {
+            this.status = status;
+            this.body = body;
+        }
+    }
+
+    private static class Endpoint {
+        private final List<Long> latencies = new ArrayList<>();
+        private long errors;
+
+        synchronized void record(long nanos, boolean success) {
+            latencies.add(nanos);
+            if (!success) {
+                errors++;
+            }
+        }
+
+        synchronized long[] sorted() {
+            return latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.space.benchmark;
+
+import com.space.model.Ship;
+import com.space.model.ShipType;
+import com.space.repository.ShipCursor;
+import com.space.repository.ShipFilter;
+import com.space.repository.ShipRepository;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the filter and sort query shapes against a generated fleet without and with the
+ * indexes from {@code db/migration/V2__add_ship_indexes.sql}.
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.space.benchmark.IndexBenchmark -Dexec.args="1000000 20"}
+ * where the arguments are the number of generated ships and the measured runs per query.
+ */
+public class IndexBenchmark {
+    private static final String[] INDEXES = {"ix_ship_type_prod_date", "ix_ship_type_speed", "ix_ship_used_rating",
+            "ix_ship_speed", "ix_ship_prod_date", "ix_ship_rating"};
+
+    public static void main(String[] args) throws Exception {
+        int ships = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+        int runs = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+
+        AnnotationConfigWebApplicationContext context = Benchmarks.devContext(Collections.emptyMap());
+        try {
+            ShipRepository shipRepository = context.getBean(ShipRepository.class);
+            DataSource dataSource = context.getBean(DataSource.class);
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+            generate(shipRepository, new TransactionTemplate(context.getBean(PlatformTransactionManager.class)), ships);
+            for (String index : INDEXES) {
+                jdbcTemplate.execute("DROP INDEX IF EXISTS " + index);
+            }
+            jdbcTemplate.execute("ANALYZE");
+            Map<String, Long> before = measure(shipRepository, runs);
+
+            Connection connection = DataSourceUtils.getConnection(dataSource);
+            try {
+                ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/migration/V2__add_ship_indexes.sql"));
+            } finally {
+                DataSourceUtils.releaseConnection(connection, dataSource);
+            }
+            jdbcTemplate.execute("ANALYZE");
+            Map<String, Long> after = measure(shipRepository, runs);
+
+            System.out.printf("%d ships, p50 of %d runs%n", ships, runs);
+            System.out.printf("%-34s %12s %12s %8s%n", "query", "before", "after", "speedup");
+            for (String query : before.keySet()) {
+                System.out.printf("%-34s %10dus %10dus %7.1fx%n", query, before.get(query), after.get(query),
+                        before.get(query) / (double) Math.max(after.get(query), 1));
+            }
+        } finally {
+            context.close();
+        }
+    }
+
+    private static void generate(ShipRepository shipRepository, TransactionTemplate transaction, int ships) {
+        Random random = new Random(42);
+        ShipType[] types = ShipType.values();
+        for (int from = 0; from < ships; from += 10000) {
+            List<Ship> chunk = new ArrayList<>();
+            for (int i = from; i < Math.min(from + 10000, ships); i++) {
+                Ship ship = new Ship();
+                ship.setName("Ship " + i);
+                ship.setPlanet("Planet " + random.nextInt(100));
+                ship.setShipType(types[random.nextInt(types.length)]);
+                ship.setProdDate(toDate(LocalDate.of(2800, 1, 1).plusDays(random.nextInt(220 * 365))));
+                ship.setUsed(random.nextBoolean());
+                ship.setSpeed(Math.round((0.01 + random.nextDouble() * 0.98) * 100) / 100.0);
+                ship.setCrewSize(1 + random.nextInt(9999));
+                ship.setRating(Math.round(random.nextDouble() * 8000) / 100.0);
+                chunk.add(ship);
+            }
+            transaction.execute(status -> {
+                shipRepository.insertAll(chunk);
+                return null;
+            });
+        }
+    }
+
+    private static Map<String, Long> measure(ShipRepository shipRepository, int runs) {
+        Map<String, Long> results = new LinkedHashMap<>();
+
+        ShipFilter typeAndDate = new ShipFilter();
+        typeAndDate.setShipType(ShipType.MILITARY);
+        typeAndDate.setAfter(toDate(LocalDate.of(3000, 1, 1)).getTime());
+        typeAndDate.setBefore(toDate(LocalDate.of(3001, 1, 1)).getTime());
+        results.put("shipType+prodDate page", time(runs, () ->
+                shipRepository.findByFilter(typeAndDate, PageRequest.of(0, 3, Sort.by("prodDate")))));
+        results.put("shipType+prodDate count", time(runs, () -> shipRepository.countByFilter(typeAndDate)));
+
+        ShipFilter typeAndSpeed = new ShipFilter();
+        typeAndSpeed.setShipType(ShipType.TRANSPORT);
+        typeAndSpeed.setMinSpeed(0.9);
+        results.put("shipType+minSpeed order=SPEED", time(runs, () ->
+                shipRepository.findByFilter(typeAndSpeed, PageRequest.of(0, 3, Sort.by("speed")))));
+
+        ShipFilter usedAndRating = new ShipFilter();
+        usedAndRating.setIsUsed(true);
+        usedAndRating.setMinRating(79.0);
+        results.put("isUsed+minRating order=RATING", time(runs, () ->
+                shipRepository.findByFilter(usedAndRating, PageRequest.of(0, 3, Sort.by("rating")))));
+
+        ShipFilter all = new ShipFilter();
+        results.put("order=SPEED page 0", time(runs, () ->
+                shipRepository.findByFilter(all, PageRequest.of(0, 3, Sort.by("speed")))));
+        results.put("order=DATE page 0", time(runs, () ->
+                shipRepository.findByFilter(all, PageRequest.of(0, 3, Sort.by("prodDate")))));
+        Ship middle = new Ship();
+        middle.setId(0L);
+        middle.setRating(40.0);
+        ShipCursor cursor = ShipCursor.after(middle, "rating");
+        results.put("order=RATING cursor", time(runs, () ->
+                shipRepository.findByFilterAfter(all, "rating", cursor, 3)));
+        return results;
+    }
+
+    private static long time(int runs, Runnable query) {
+        query.run();
+        long[] latencies = new long[runs];
+        for (int i = 0; i < runs; i++) {
+            long start = System.nanoTime();
+            query.run();
+            latencies[i] = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+        }
+        Arrays.sort(latencies);
+        return Benchmarks.percentile(latencies, 50);
+    }
+
+    private static Date toDate(LocalDate date) {
+        return Date.from(date.atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+}
@@ -0,0 +1,91 @@
+package com.space.config;
+
+import org.flywaydb.core.Flyway;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+
+public class MigrationTest {
+    private static final String[] INDEXES = {"ix_ship_type_prod_date", "ix_ship_type_speed", "ix_ship_used_rating",
+            "ix_ship_speed", "ix_ship_prod_date", "ix_ship_rating"};
+
+    //test1
+    @Test
+    public void migrateSchemaFromInitSqlTest() throws Exception {
+        JdbcDataSource dataSource = mysqlLikeDatabase();
+        runInitSql(dataSource);
+
+        AppConfig.migrate(dataSource);
+
+        assertEquals("Неверная версия схемы после миграции.", "3", currentVersion(dataSource));
+        assertEquals("Не все индексы созданы миграцией.", INDEXES.length, indexCount(dataSource));
+        assertEquals("Миграция потеряла данные из init.sql.", 40,
+                new JdbcTemplate(dataSource).queryForObject("select count(*) from ship", Integer.class).intValue());
+    }
+
+    //test2
+    @Test
+    public void migrateSchemaWithExistingIndexesTest() throws Exception {
+        JdbcDataSource dataSource = mysqlLikeDatabase();
+        runInitSql(dataSource);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        for (String statement : readStatements("src/main/resources/db/migration/V2__add_ship_indexes.sql")) {
+            jdbcTemplate.execute(statement);
+        }
+
+        AppConfig.migrate(dataSource);
+
+        assertEquals("Схема с уже созданными индексами не прошла миграцию.", "3", currentVersion(dataSource));
+        assertEquals("Индексы не должны дублироваться.", INDEXES.length, indexCount(dataSource));
+    }
+
+    private static JdbcDataSource mysqlLikeDatabase() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+        return dataSource;
+    }
+
+    private static void runInitSql(JdbcDataSource dataSource) throws Exception {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        for (String statement : readStatements("init.sql")) {
+            String upper = statement.toUpperCase();
+            if (upper.startsWith("CREATE DATABASE") || upper.startsWith("USE ")) {
+                continue;
+            }
+            // H2 has no InnoDB table options
+            jdbcTemplate.execute(statement.replaceAll("(?s)\\)\\s*ENGINE.*$", ")"));
+        }
+    }
+
+    private static String[] readStatements(String path) throws Exception {
+        StringBuilder script = new StringBuilder();
+        for (String line : Files.readAllLines(Paths.get(path), StandardCharsets.UTF_8)) {
+            if (!line.trim().startsWith("--")) {
+                script.append(line).append('\n');
+            }
+        }
+        return Arrays.stream(script.toString().split(";"))
+                .map(String::trim)
+                .filter(statement -> !statement.isEmpty())
+                .toArray(String[]::new);
+    }
+
+    private static String currentVersion(JdbcDataSource dataSource) {
+        return Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").load()
+                .info().current().getVersion().getVersion();
+    }
+
+    private static int indexCount(JdbcDataSource dataSource) {
+        return new JdbcTemplate(dataSource).queryForObject(
+                "select count(distinct index_name) from information_schema.indexes where lower(index_name) like 'ix_ship_%'",
+                Integer.class);
+    }
+}
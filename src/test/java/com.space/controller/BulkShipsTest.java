@@ -0,0 +1,123 @@
+package com.space.controller;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.space.controller.utils.ShipInfoTest;
+import com.space.controller.utils.TestsHelper;
+import com.space.model.ShipType;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class BulkShipsTest extends AbstractTest {
+
+    private TestsHelper testsHelper = new TestsHelper();
+    private ObjectMapper mapper = new ObjectMapper();
+
+    //test1
+    @Test
+    public void deleteShipsWithoutFiltersTest() throws Exception {
+        mockMvc.perform(delete("/rest/ships"))
+                .andExpect(status().isBadRequest());
+    }
+
+    //test2
+    @Test
+    public void deleteShipsWithFiltersShipTypeIsUsedBeforeTest() throws Exception {
+        //before 00:00 01/01/3005
+        String contentAsString = mockMvc.perform(delete("/rest/ships?shipType=TRANSPORT&isUsed=true&before=32661439200000"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        int expected = testsHelper.getShipInfosByBefore(32661439200000L,
+                testsHelper.getShipInfosByIsUsed(true,
+                        testsHelper.getShipInfosByShipType(ShipType.TRANSPORT,
+                                testsHelper.getAllShips()))).size();
+
+        assertEquals("Неверное количество удаленных кораблей при запросе DELETE /rest/ships с фильтрами.", String.valueOf(expected), contentAsString);
+
+        String count = mockMvc.perform(get("/rest/ships/count"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertEquals("Неверное количество кораблей после DELETE /rest/ships с фильтрами.",
+                String.valueOf(testsHelper.getAllShips().size() - expected), count);
+    }
+
+    //test3
+    @Test
+    public void updateShipsWithoutChangesTest() throws Exception {
+        mockMvc.perform(post("/rest/ships/bulk?ids=1,2")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content("{}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    //test4
+    @Test
+    public void updateShipsIsUsedRecomputesRatingTest() throws Exception {
+        String contentAsString = mockMvc.perform(post("/rest/ships/bulk?ids=1,2")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content("{\"isUsed\": false}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals("Неверное количество обновленных кораблей при запросе POST /rest/ships/bulk.", "2", contentAsString);
+
+        ShipInfoTest expected = testsHelper.getShipInfosById(1);
+        expected.isUsed = false;
+        expected.rating = 2.62;
+        String shipAsString = mockMvc.perform(get("/rest/ships/1")
+                .accept(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertEquals("Вернулся неправильный объект после POST /rest/ships/bulk.",
+                expected, mapper.readValue(shipAsString, ShipInfoTest.class));
+    }
+
+    //test5
+    @Test
+    public void bulkChangesFollowTextSearchTest() throws Exception {
+        mockMvc.perform(post("/rest/ships/bulk?ids=1,2")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content("{\"planet\": \"Plutonia\"}"))
+                .andExpect(status().isOk());
+        assertEquals("Поиск по планете не учел массовое изменение.", 2, findByPlanet("utoni").size());
+
+        mockMvc.perform(delete("/rest/ships?ids=1"))
+                .andExpect(status().isOk());
+        List<ShipInfoTest> found = findByPlanet("utoni");
+        assertEquals("Поиск по планете не учел массовое удаление.", 1, found.size());
+        assertEquals("Поиск по планете не учел массовое удаление.", 2L, (long) found.get(0).id);
+    }
+
+    //test6
+    @Test
+    public void deleteShipsWithTooManyIdsTest() throws Exception {
+        String ids = LongStream.rangeClosed(1, ShipRestController.MAX_FILTER_IDS + 1)
+                .mapToObj(String::valueOf).collect(Collectors.joining(","));
+        mockMvc.perform(delete("/rest/ships").param("ids", ids))
+                .andExpect(status().isBadRequest());
+
+        String count = mockMvc.perform(get("/rest/ships/count"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertEquals("Слишком длинный список ids не должен удалять корабли.",
+                String.valueOf(testsHelper.getAllShips().size()), count);
+    }
+
+    private List<ShipInfoTest> findByPlanet(String planet) throws Exception {
+        String contentAsString = mockMvc.perform(get("/rest/ships?planet=" + planet))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return mapper.readValue(contentAsString, new TypeReference<List<ShipInfoTest>>() {
+        });
+    }
+}
@@ -0,0 +1,123 @@
+package com.space.controller;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.space.controller.utils.ShipInfoTest;
+import com.space.controller.utils.SqlStatementCounter;
+import com.space.controller.utils.TestsHelper;
+import com.space.model.ShipType;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.util.AssertionErrors.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@TestPropertySource(properties = {"cosmoport.column-store.enabled=true", "cosmoport.bulk.max-event-rows=5"})
+public class ColumnStoreTest extends AbstractTest {
+
+    private TestsHelper testsHelper = new TestsHelper();
+    private ObjectMapper mapper = new ObjectMapper();
+
+    //test1
+    @Test
+    public void columnStoreFilterOrderPageTest() throws Exception {
+        String contentAsString = mockMvc.perform(get("/rest/ships?shipType=MERCHANT&minSpeed=0.3&order=SPEED&pageNumber=1&pageSize=2"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        List<ShipInfoTest> actual = mapper.readValue(contentAsString, new TypeReference<List<ShipInfoTest>>() {
+        });
+        List<ShipInfoTest> filtered = testsHelper.getShipInfosByOrder(ShipOrder.SPEED,
+                testsHelper.getShipInfosByMinSpeed(0.3,
+                        testsHelper.getShipInfosByShipType(ShipType.MERCHANT, testsHelper.getAllShips())));
+        assertEquals("Возвращается не правильный список при поиске по колоночному хранилищу.",
+                testsHelper.getShipInfosByPage(1, 2, filtered), actual);
+
+        String count = mockMvc.perform(get("/rest/ships/count?isUsed=true&maxCrewSize=1000"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertEquals("Возвращается не правильное количество при подсчете по колоночному хранилищу.",
+                testsHelper.getShipInfosByMaxCrewSize(1000,
+                        testsHelper.getShipInfosByIsUsed(true, testsHelper.getAllShips())).size(), Integer.parseInt(count));
+
+        JsonNode stats = mapper.readTree(mockMvc.perform(get("/rest/admin/column-store"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+        assertTrue("Колоночное хранилище не ответило на запросы.", stats.get("answeredQueries").asLong() >= 2);
+    }
+
+    //test2
+    @Test
+    public void columnStoreFollowsWritesTest() throws Exception {
+        int total = testsHelper.getAllShips().size();
+
+        mockMvc.perform(delete("/rest/ships/1"))
+                .andExpect(status().isOk());
+        mockMvc.perform(patch("/rest/ships/2")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"crewSize\": 9999}"))
+                .andExpect(status().isOk());
+
+        assertEquals("Колоночное хранилище не учло удаление корабля.",
+                String.valueOf(total - 1), mockMvc.perform(get("/rest/ships/count"))
+                        .andReturn().getResponse().getContentAsString());
+        String contentAsString = mockMvc.perform(get("/rest/ships?minCrewSize=9999"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        List<ShipInfoTest> actual = mapper.readValue(contentAsString, new TypeReference<List<ShipInfoTest>>() {
+        });
+        assertEquals("Колоночное хранилище не учло частичное обновление корабля.", 1, actual.size());
+        assertEquals("Колоночное хранилище не учло частичное обновление корабля.", 2L, (long) actual.get(0).id);
+    }
+
+    //test3
+    @Test
+    public void columnStoreFollowsBulkWritesTest() throws Exception {
+        mockMvc.perform(post("/rest/ships/bulk?ids=1,2")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"isUsed\": false}"))
+                .andExpect(status().isOk());
+        String contentAsString = mockMvc.perform(get("/rest/ships?ids=1,2&isUsed=false&minRating=2.62&maxRating=2.62"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        List<ShipInfoTest> actual = mapper.readValue(contentAsString, new TypeReference<List<ShipInfoTest>>() {
+        });
+        assertEquals("Колоночное хранилище не учло пересчет рейтинга при массовом изменении.", 1, actual.size());
+        assertEquals("Колоночное хранилище не учло пересчет рейтинга при массовом изменении.", 1L, (long) actual.get(0).id);
+
+        int merchants = testsHelper.getShipInfosByShipType(ShipType.MERCHANT, testsHelper.getAllShips()).size();
+        assertTrue("Массовое удаление должно превышать cosmoport.bulk.max-event-rows.", merchants > 5);
+        SqlStatementCounter counter = new SqlStatementCounter(context.getBean(EntityManagerFactory.class));
+        mockMvc.perform(delete("/rest/ships?shipType=MERCHANT"))
+                .andExpect(status().isOk());
+        assertEquals("Массовое удаление сверх порога не должно загружать удаляемые корабли.", 0L, counter.loadedEntities());
+        assertEquals("Колоночное хранилище не должно отвечать устаревшими данными во время перестроения.", "0", countMerchants());
+        long deadline = System.currentTimeMillis() + 10000;
+        while (!columnStoreReady() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue("Колоночное хранилище не перестроилось после массового удаления.", columnStoreReady());
+        assertEquals("Колоночное хранилище не перестроилось после массового удаления.", "0", countMerchants());
+    }
+
+    private boolean columnStoreReady() throws Exception {
+        return mapper.readTree(mockMvc.perform(get("/rest/admin/column-store"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString()).get("ready").asBoolean();
+    }
+
+    private String countMerchants() throws Exception {
+        return mockMvc.perform(get("/rest/ships/count?shipType=MERCHANT&minSpeed=0.01"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+}
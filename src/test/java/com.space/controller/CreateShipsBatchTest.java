@@ -0,0 +1,89 @@
+package com.space.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.space.controller.utils.ShipInfoTest;
+import com.space.controller.utils.TestsHelper;
+import com.space.model.ShipType;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class CreateShipsBatchTest extends AbstractTest {
+
+    private TestsHelper testsHelper = new TestsHelper();
+    private ObjectMapper mapper = new ObjectMapper();
+
+    //test1
+    @Test
+    public void createShipsEmptyArrayTest() throws Exception {
+        mockMvc.perform(post("/rest/ships/batch")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .accept(MediaType.APPLICATION_JSON_UTF8)
+                .content("[]"))
+                .andExpect(status().isBadRequest());
+    }
+
+    //test2
+    @Test
+    public void createShipsReportsFailuresAndPersistsValidShipsTest() throws Exception {
+        String body = "[" + TestsHelper.NORMAL_JSON + "," + TestsHelper.NO_SPEED_JSON + "," + TestsHelper.IS_USED_TRUE_JSON + "]";
+        String contentAsString = mockMvc.perform(post("/rest/ships/batch")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .accept(MediaType.APPLICATION_JSON_UTF8)
+                .content(body))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        JsonNode result = mapper.readTree(contentAsString);
+        assertEquals("Неверное количество созданных кораблей при запросе POST /rest/ships/batch", 2, result.get("created").size());
+        assertEquals("Неверный список ошибок при запросе POST /rest/ships/batch", 1, result.get("failures").size());
+        assertEquals("Неверный индекс ошибки при запросе POST /rest/ships/batch", 1, result.get("failures").get(0).get("index").asInt());
+
+        ShipInfoTest expected = new ShipInfoTest(42L, "123456789", "Earth", ShipType.MILITARY, 32998274577071L, true, 0.8, 14, 6.4);
+        String shipAsString = mockMvc.perform(get("/rest/ships/42")
+                .accept(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertEquals("Вернулся неправильный объект при запросе GET /rest/ships/{id} после POST /rest/ships/batch",
+                expected, mapper.readValue(shipAsString, ShipInfoTest.class));
+
+        String count = mockMvc.perform(get("/rest/ships/count"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertEquals("Неверное количество кораблей после POST /rest/ships/batch", "42", count);
+    }
+
+    //test3
+    @Test
+    public void createShipsPublishesOneChangeTest() throws Exception {
+        long published = feedPublished();
+        String body = "[" + TestsHelper.NORMAL_JSON + "," + TestsHelper.IS_USED_TRUE_JSON + "," + TestsHelper.NORMAL_JSON + "]";
+        mockMvc.perform(post("/rest/ships/batch")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content(body))
+                .andExpect(status().isOk());
+
+        assertEquals("Пакет кораблей должен публиковать одно изменение.", published + 1, feedPublished());
+        String count = mockMvc.perform(get("/rest/ships/count?shipType=MILITARY&isUsed=false"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String names = mockMvc.perform(get("/rest/ships/count?name=23456"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertEquals("Неверное количество кораблей после POST /rest/ships/batch", "3", names);
+        int expected = testsHelper.getShipInfosByIsUsed(false,
+                testsHelper.getShipInfosByShipType(ShipType.MILITARY, testsHelper.getAllShips())).size() + 2;
+        assertEquals("Счетчики не учли пакет кораблей.", String.valueOf(expected), count);
+    }
+
+    private long feedPublished() throws Exception {
+        return mapper.readTree(mockMvc.perform(get("/rest/admin/feed"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString()).get("published").asLong();
+    }
+}
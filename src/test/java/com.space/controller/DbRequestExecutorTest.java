@@ -0,0 +1,154 @@
+package com.space.controller;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.space.config.DbRequestExecutor;
+import com.space.exceptions.ServiceUnavailableException;
+import org.junit.Test;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.util.AssertionErrors.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class DbRequestExecutorTest extends AbstractTest {
+
+    private ObjectMapper mapper = new ObjectMapper();
+
+    //test1
+    @Test
+    public void shipRequestsRunOnDbExecutorTest() throws Exception {
+        MvcResult result = MockMvcBuilders.webAppContextSetup(context).build()
+                .perform(get("/rest/ships/1"))
+                .andReturn();
+        assertTrue("Запрос должен обрабатываться асинхронно.", result.getRequest().isAsyncStarted());
+        result.getAsyncResult(30000);
+
+        mockMvc.perform(get("/rest/ships/count")).andExpect(status().isOk());
+        JsonNode stats = mapper.readTree(mockMvc.perform(get("/rest/admin/db-executor"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+        assertTrue("Запросы не прошли через пул обращений к базе.", stats.get("submitted").asLong() >= 2);
+        assertEquals("Очередь пула обращений к базе не пуста.", 0, stats.get("queued").asInt());
+    }
+
+    //test2
+    @Test
+    public void boundedQueueRejectsOverflowTest() throws Exception {
+        DbRequestExecutor executor = new DbRequestExecutor(1, 1, 1000);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            executor.submit(() -> {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return 1;
+            });
+            started.await();
+            executor.submit(() -> 2);
+
+            boolean rejected = false;
+            try {
+                executor.submit(() -> 3);
+            } catch (ServiceUnavailableException e) {
+                rejected = true;
+            }
+            assertTrue("Переполненная очередь должна отклонять запросы.", rejected);
+
+            JsonNode stats = new ObjectMapper()
+                    .setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY)
+                    .valueToTree(executor.snapshot());
+            assertEquals("Неверное количество отклоненных запросов.", 1L, stats.get("rejected").asLong());
+            assertEquals("Неверная глубина очереди.", 1, stats.get("queued").asInt());
+        } finally {
+            release.countDown();
+            executor.destroy();
+        }
+    }
+
+    //test3
+    @Test
+    public void timeoutCancelsOnlyQueuedRequestsTest() throws Exception {
+        DbRequestExecutor executor = new DbRequestExecutor(1, 2, 60000);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger runs = new AtomicInteger();
+        MockMvc slowMvc = MockMvcBuilders.standaloneSetup(new SlowController(() -> executor.submit(() -> {
+            if (runs.incrementAndGet() == 1) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return 1;
+        }))).build();
+        try {
+            MvcResult running = slowMvc.perform(get("/slow")).andReturn();
+            started.await();
+            MvcResult queued = slowMvc.perform(get("/slow")).andReturn();
+
+            timeOut(running);
+            timeOut(queued);
+            release.countDown();
+
+            ObjectMapper fields = new ObjectMapper().setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY);
+            JsonNode stats = fields.valueToTree(executor.snapshot());
+            for (long deadline = System.currentTimeMillis() + 10000;
+                 stats.get("completed").asLong() < 2 && System.currentTimeMillis() < deadline; ) {
+                Thread.sleep(10);
+                stats = fields.valueToTree(executor.snapshot());
+            }
+            assertEquals("Неверное количество запросов с истекшим временем.", 2L, stats.get("timeouts").asLong());
+            assertEquals("Отмененным должен считаться только запрос из очереди.", 1L, stats.get("cancelled").asLong());
+            assertEquals("Отмененный запрос не должен выполняться.", 1, runs.get());
+        } finally {
+            release.countDown();
+            executor.destroy();
+        }
+    }
+
+    private static void timeOut(MvcResult result) throws Exception {
+        MockAsyncContext asyncContext = (MockAsyncContext) result.getRequest().getAsyncContext();
+        for (AsyncListener listener : asyncContext.getListeners()) {
+            listener.onTimeout(new AsyncEvent(asyncContext));
+        }
+    }
+
+    @RequestMapping
+    @ResponseBody
+    private static class SlowController {
+        private final Supplier<DeferredResult<Integer>> handler;
+
+        SlowController(Supplier<DeferredResult<Integer>> handler) {
+            this.handler = handler;
+        }
+
+        @GetMapping("/slow")
+        public DeferredResult<Integer> slow() {
+            return handler.get();
+        }
+    }
+}
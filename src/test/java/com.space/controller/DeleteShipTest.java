@@ -1,8 +1,12 @@
 package com.space.controller;
 
+import com.space.controller.utils.SqlStatementCounter;
 import org.junit.Test;
 import org.springframework.http.MediaType;
 
+import javax.persistence.EntityManagerFactory;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -44,4 +48,18 @@ public class DeleteShipTest extends AbstractTest {
                 .accept(MediaType.APPLICATION_JSON_UTF8))
                 .andExpect(status().isNotFound());
     }
-}
\ No newline at end of file
+
+    //test5
+    @Test
+    public void deleteShipByIdSingleStatementTest() throws Exception {
+        SqlStatementCounter counter = new SqlStatementCounter(context.getBean(EntityManagerFactory.class));
+
+        counter.reset();
+        mockMvc.perform(delete("/rest/ships/2")).andExpect(status().isOk());
+        assertEquals("Неверное количество SQL-запросов при запросе DELETE /rest/ships/{id}", 1L, counter.count());
+
+        counter.reset();
+        mockMvc.perform(delete("/rest/ships/2")).andExpect(status().isNotFound());
+        assertEquals("Неверное количество SQL-запросов при запросе DELETE /rest/ships/{id} удаленного корабля", 1L, counter.count());
+    }
+}
@@ -0,0 +1,81 @@
+package com.space.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.space.controller.utils.ShipInfoTest;
+import com.space.controller.utils.TestsHelper;
+import com.space.model.ShipType;
+import org.junit.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class ExportShipsTest extends AbstractTest {
+
+    private TestsHelper testsHelper = new TestsHelper();
+    private ObjectMapper mapper = new ObjectMapper();
+
+    //test1
+    @Test
+    public void exportAllShipsAsNdjsonTest() throws Exception {
+        String contentAsString = mockMvc.perform(get("/rest/ships/export"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        List<ShipInfoTest> actual = new ArrayList<>();
+        for (String line : contentAsString.split("\n")) {
+            actual.add(mapper.readValue(line, ShipInfoTest.class));
+        }
+
+        assertEquals("Возвращается неправильный результат при запросе GET /rest/ships/export.", testsHelper.getAllShips(), actual);
+    }
+
+    //test2
+    @Test
+    public void exportShipsAsCsvWithFiltersTest() throws Exception {
+        String contentAsString = mockMvc.perform(get("/rest/ships/export?format=CSV&shipType=MERCHANT&isUsed=false"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String[] lines = contentAsString.split("\n");
+
+        List<Long> expected = testsHelper.getShipInfosByIsUsed(false,
+                testsHelper.getShipInfosByShipType(ShipType.MERCHANT, testsHelper.getAllShips()))
+                .stream().map(ship -> ship.id).collect(Collectors.toList());
+        List<Long> actual = new ArrayList<>();
+        for (int i = 1; i < lines.length; i++) {
+            actual.add(Long.valueOf(lines[i].substring(0, lines[i].indexOf(','))));
+        }
+
+        assertEquals("Неверный заголовок CSV при запросе GET /rest/ships/export?format=CSV.",
+                "id,name,planet,shipType,prodDate,isUsed,speed,crewSize,rating", lines[0]);
+        assertEquals("Возвращается неправильный результат при запросе GET /rest/ships/export?format=CSV с фильтрами.", expected, actual);
+    }
+
+    //test3
+    @Test
+    public void exportShipsWithGzipTest() throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(get("/rest/ships/export?format=CSV")
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+
+        assertEquals("Неверный заголовок Content-Encoding при запросе GET /rest/ships/export со сжатием.",
+                "gzip", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray())), StandardCharsets.UTF_8))) {
+            assertEquals("Неверное количество строк при запросе GET /rest/ships/export со сжатием.",
+                    testsHelper.getAllShips().size() + 1L, reader.lines().count());
+        }
+    }
+}
@@ -10,6 +10,7 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.springframework.test.util.AssertionErrors.assertEquals;
@@ -217,4 +218,74 @@ public class GetAllTest extends AbstractTest {
 
         assertEquals("Возвращается не правильный результат при запросе GET /rest/ships с параметрами after, before, minCrewSize и maxCrewSize.", expected, actual);
     }
-}
\ No newline at end of file
+
+    //test11
+    @Test
+    public void getAllWithFiltersPlanetShipTypeIsUsedMinRating() throws Exception {
+        ResultActions resultActions = mockMvc.perform(get("/rest/ships?planet=r&shipType=MILITARY&isUsed=false&minRating=2&pageSize=10")
+                .accept(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isOk());
+
+        MvcResult result = resultActions.andReturn();
+        String contentAsString = result.getResponse().getContentAsString();
+
+        List<ShipInfoTest> actual = mapper.readValue(contentAsString, typeReference);
+        List<ShipInfoTest> expected = testsHelper.getShipInfosByPage(0, 10,
+                testsHelper.getShipInfosByPlanet("r",
+                        testsHelper.getShipInfosByShipType(ShipType.MILITARY,
+                                testsHelper.getShipInfosByIsUsed(false,
+                                        testsHelper.getShipInfosByMinRating(2.,
+                                                testsHelper.getAllShips())))));
+
+        assertEquals("Возвращается не правильный результат при запросе GET /rest/ships с параметрами planet, shipType, isUsed и minRating.", expected, actual);
+    }
+
+    //test12
+    @Test
+    public void getAllWithCursorOrderSpeedWalksAllPages() throws Exception {
+        List<ShipInfoTest> actual = new ArrayList<>();
+        String cursor = "";
+        int pages = 0;
+        while (cursor != null) {
+            MvcResult result = mockMvc.perform(get("/rest/ships?order=SPEED&pageSize=7&cursor=" + cursor)
+                    .accept(MediaType.APPLICATION_JSON_UTF8))
+                    .andExpect(status().isOk())
+                    .andReturn();
+            actual.addAll(mapper.readValue(result.getResponse().getContentAsString(), typeReference));
+            cursor = result.getResponse().getHeader(ShipRestController.NEXT_CURSOR_HEADER);
+            pages++;
+        }
+        List<ShipInfoTest> expected = testsHelper.getShipInfosByOrder(ShipOrder.SPEED,
+                new ArrayList<>(testsHelper.getAllShips()));
+
+        assertEquals("Возвращается не правильный результат при постраничном обходе GET /rest/ships с параметром cursor.", expected, actual);
+        assertEquals("Неверное количество страниц при обходе GET /rest/ships с параметром cursor.", 6, pages);
+    }
+
+    //test13
+    @Test
+    public void getAllWithMalformedCursor() throws Exception {
+        mockMvc.perform(get("/rest/ships?cursor=not-a-cursor")
+                .accept(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isBadRequest());
+    }
+
+    //test14
+    @Test
+    public void getAllWithFiltersLongNameAndPlanet() throws Exception {
+        ResultActions resultActions = mockMvc.perform(get("/rest/ships?name=tar&planet=ercur&pageSize=10")
+                .accept(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isOk());
+
+        MvcResult result = resultActions.andReturn();
+        String contentAsString = result.getResponse().getContentAsString();
+
+        List<ShipInfoTest> actual = mapper.readValue(contentAsString, typeReference);
+        List<ShipInfoTest> expected = testsHelper.getShipInfosByPage(0, 10,
+                testsHelper.getShipInfosByName("tar",
+                        testsHelper.getShipInfosByPlanet("ercur",
+                                testsHelper.getAllShips())));
+
+        assertEquals("Возвращается не правильный результат при запросе GET /rest/ships с параметрами name и planet.", expected, actual);
+    }
+}
@@ -9,6 +9,7 @@ import org.springframework.test.web.servlet.ResultActions;
 
 import static org.junit.Assert.assertSame;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 public class GetCountTest extends AbstractTest {
@@ -152,4 +153,56 @@ public class GetCountTest extends AbstractTest {
 
         assertSame("Во звращается не правильный результат при запросе GET /rest/ships/count с параметрами isUsed, minSpeed и maxSpeed.", expected, actual);
     }
-}
\ No newline at end of file
+
+    //test9
+    @Test
+    public void getCountWithFiltersPlanetShipTypeIsUsedMinRating() throws Exception {
+        ResultActions resultActions = this.mockMvc.perform(get("/rest/ships/count?planet=r&shipType=MILITARY&isUsed=false&minRating=2")
+                .accept(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isOk());
+
+        MvcResult result = resultActions.andReturn();
+        String contentAsString = result.getResponse().getContentAsString();
+        int actual = Integer.parseInt(contentAsString);
+        int expected = testsHelper.getShipInfosByPlanet("r",
+                testsHelper.getShipInfosByShipType(ShipType.MILITARY,
+                        testsHelper.getShipInfosByIsUsed(false,
+                                testsHelper.getShipInfosByMinRating(2.,
+                                        testsHelper.getAllShips())))).size();
+
+        assertSame("Возвращается не правильный результат при запросе GET /rest/ships/count с параметрами planet, shipType, isUsed и minRating.", expected, actual);
+    }
+
+    //test10
+    @Test
+    public void getCountReflectsCreatedShip() throws Exception {
+        String url = "/rest/ships/count?shipType=MILITARY&isUsed=false";
+        int before = Integer.parseInt(this.mockMvc.perform(get(url)).andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+
+        this.mockMvc.perform(post("/rest/ships")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content(TestsHelper.NORMAL_JSON))
+                .andExpect(status().isOk());
+
+        int after = Integer.parseInt(this.mockMvc.perform(get(url)).andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+
+        assertSame("Возвращается устаревший результат при запросе GET /rest/ships/count после создания корабля.", before + 1, after);
+    }
+
+    //test11
+    @Test
+    public void getCountWithFilterNameFindsCreatedShip() throws Exception {
+        String url = "/rest/ships/count?name=345678";
+        this.mockMvc.perform(post("/rest/ships")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content(TestsHelper.NORMAL_JSON))
+                .andExpect(status().isOk());
+
+        int actual = Integer.parseInt(this.mockMvc.perform(get(url)).andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+
+        assertSame("Возвращается не правильный результат при запросе GET /rest/ships/count с параметром name после создания корабля.", 1, actual);
+    }
+}
@@ -2,13 +2,18 @@ package com.space.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.space.controller.utils.ShipInfoTest;
+import com.space.controller.utils.SqlStatementCounter;
 import com.space.controller.utils.TestsHelper;
 import org.junit.Test;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.ResultActions;
 
+import javax.persistence.EntityManagerFactory;
+
 import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 public class GetShipTest extends AbstractTest {
@@ -51,4 +56,43 @@ public class GetShipTest extends AbstractTest {
         ShipInfoTest actual = mapper.readValue(contentAsString, ShipInfoTest.class);
         assertEquals("Вернулся неправильный объект при запросе GET /rest/ships/{id}", expected, actual);
     }
-}
\ No newline at end of file
+
+    //test5
+    @Test
+    public void getShipByIdAfterUpdateAndDeleteTest() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        mockMvc.perform(get("/rest/ships/14")).andExpect(status().isOk());
+        mockMvc.perform(get("/rest/ships/14")).andExpect(status().isOk());
+
+        mockMvc.perform(post("/rest/ships/14")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content("{\"name\": \"Renamed\"}"))
+                .andExpect(status().isOk());
+
+        String contentAsString = mockMvc.perform(get("/rest/ships/14")
+                .accept(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        ShipInfoTest actual = mapper.readValue(contentAsString, ShipInfoTest.class);
+        assertEquals("Вернулся устаревший объект при запросе GET /rest/ships/{id} после обновления", "Renamed", actual.name);
+
+        mockMvc.perform(delete("/rest/ships/14")).andExpect(status().isOk());
+        mockMvc.perform(get("/rest/ships/14")
+                .accept(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isNotFound());
+    }
+
+    //test6
+    @Test
+    public void getShipByIdSingleStatementTest() throws Exception {
+        SqlStatementCounter counter = new SqlStatementCounter(context.getBean(EntityManagerFactory.class));
+
+        counter.reset();
+        mockMvc.perform(get("/rest/ships/7")).andExpect(status().isOk());
+        assertEquals("Неверное количество SQL-запросов при запросе GET /rest/ships/{id}", 1L, counter.count());
+
+        counter.reset();
+        mockMvc.perform(get("/rest/ships/426")).andExpect(status().isNotFound());
+        assertEquals("Неверное количество SQL-запросов при запросе GET /rest/ships/{id} несуществующего корабля", 1L, counter.count());
+    }
+}
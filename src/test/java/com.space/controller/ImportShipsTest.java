@@ -0,0 +1,163 @@
+package com.space.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.space.controller.utils.TestsHelper;
+import org.junit.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class ImportShipsTest extends AbstractTest {
+
+    private TestsHelper testsHelper = new TestsHelper();
+    private ObjectMapper mapper = new ObjectMapper();
+
+    //test1
+    @Test
+    public void importNdjsonWithRejectedRowsTest() throws Exception {
+        long published = feedPublished();
+        String body = "{\"name\":\"Import 1\",\"planet\":\"Earth\",\"shipType\":\"MILITARY\",\"prodDate\":32661439200000,\"speed\":0.5,\"crewSize\":10}\n"
+                + "{\"name\":\"Import 2\",\"planet\":\"Earth\",\"shipType\":\"MILITARY\",\"prodDate\":32661439200000,\"speed\":2.5,\"crewSize\":10}\n"
+                + "{\"name\":\"Import 3\",\n"
+                + "\n"
+                + "{\"name\":\"Import 4\",\"planet\":\"Mars\",\"shipType\":\"TRANSPORT\",\"prodDate\":32661439200000,\"isUsed\":true,\"speed\":0.5,\"crewSize\":10}\n";
+
+        String contentAsString = mockMvc.perform(post("/rest/ships/import")
+                .content(body))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        JsonNode result = mapper.readTree(contentAsString);
+
+        assertEquals("Неверное количество импортированных кораблей при запросе POST /rest/ships/import.", 2L, result.get("imported").asLong());
+        assertEquals("Неверное количество отклоненных строк при запросе POST /rest/ships/import.", 2L, result.get("rejected").asLong());
+        assertEquals("Неверный номер отклоненной строки при запросе POST /rest/ships/import.", 2, result.get("failures").get(0).get("index").asInt());
+        assertEquals("Неверный номер отклоненной строки при запросе POST /rest/ships/import.", 3, result.get("failures").get(1).get("index").asInt());
+        assertEquals("Импорт должен публиковать одно изменение на пакет.", published + 1, feedPublished());
+
+        String count = mockMvc.perform(get("/rest/ships/count"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertEquals("Неверное количество кораблей после POST /rest/ships/import.",
+                String.valueOf(testsHelper.getAllShips().size() + 2), count);
+    }
+
+    //test2
+    @Test
+    public void importGzippedCsvTest() throws Exception {
+        String body = "planet,name,shipType,prodDate,speed,crewSize\n"
+                + "Earth,\"Import, \"\"first\"\"\",MERCHANT,32676991200000,0.5,100\n"
+                + "Earth,Import second,UNKNOWN,32661439200000,0.5,100\n";
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(body.getBytes(StandardCharsets.UTF_8));
+        }
+
+        String contentAsString = mockMvc.perform(post("/rest/ships/import?format=CSV")
+                .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .content(bytes.toByteArray()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        JsonNode result = mapper.readTree(contentAsString);
+
+        assertEquals("Неверное количество импортированных кораблей при запросе POST /rest/ships/import?format=CSV.", 1L, result.get("imported").asLong());
+        assertEquals("Неверное количество отклоненных строк при запросе POST /rest/ships/import?format=CSV.", 1L, result.get("rejected").asLong());
+
+        JsonNode ship = mapper.readTree(mockMvc.perform(get("/rest/ships/41"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+        assertEquals("Неверное имя импортированного корабля.", "Import, \"first\"", ship.get("name").asText());
+        assertEquals("Неверный рейтинг импортированного корабля.", 2.67, ship.get("rating").asDouble());
+    }
+
+    //test3
+    @Test
+    public void importNullRecordIsRejectedTest() throws Exception {
+        String body = "{\"name\":\"Import 1\",\"planet\":\"Earth\",\"shipType\":\"MILITARY\",\"prodDate\":32661439200000,\"speed\":0.5,\"crewSize\":10}\n"
+                + "null\n"
+                + "{\"name\":\"Import 3\",\"planet\":\"Mars\",\"shipType\":\"TRANSPORT\",\"prodDate\":32661439200000,\"isUsed\":true,\"speed\":0.5,\"crewSize\":10}\n";
+
+        JsonNode result = mapper.readTree(mockMvc.perform(post("/rest/ships/import")
+                .content(body))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+
+        assertEquals("Строки после null не должны теряться при запросе POST /rest/ships/import.", 2L, result.get("imported").asLong());
+        assertEquals("Неверное количество отклоненных строк при запросе POST /rest/ships/import.", 1L, result.get("rejected").asLong());
+        assertEquals("Неверный номер отклоненной строки при запросе POST /rest/ships/import.", 2, result.get("failures").get(0).get("index").asInt());
+    }
+
+    //test4
+    @Test
+    public void importCsvWithInvalidIsUsedTest() throws Exception {
+        String body = "planet,name,shipType,prodDate,isUsed,speed,crewSize\n"
+                + "Earth,Import first,MERCHANT,32676991200000,yes,0.5,100\n"
+                + "Earth,Import second,MERCHANT,32676991200000,1,0.5,100\n"
+                + "Earth,Import third,MERCHANT,32676991200000,FALSE,0.5,100\n";
+
+        JsonNode result = mapper.readTree(mockMvc.perform(post("/rest/ships/import?format=CSV")
+                .content(body))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+
+        assertEquals("Неверное количество импортированных кораблей при запросе POST /rest/ships/import?format=CSV.", 1L, result.get("imported").asLong());
+        assertEquals("Неверное количество отклоненных строк при запросе POST /rest/ships/import?format=CSV.", 2L, result.get("rejected").asLong());
+        assertEquals("Неверная причина отклонения строки.", "malformed record", result.get("failures").get(0).get("reason").asText());
+        assertEquals("Неверный номер отклоненной строки при запросе POST /rest/ships/import?format=CSV.", 2, result.get("failures").get(1).get("index").asInt());
+    }
+
+    //test5
+    @Test
+    public void csvExportWithLineBreaksImportsBackTest() throws Exception {
+        String name = "Line\r\nbreak, \"quoted\"\nend";
+        String ship = mapper.writeValueAsString(mapper.createObjectNode()
+                .put("name", name).put("planet", "Earth").put("shipType", "MERCHANT")
+                .put("prodDate", 32661439200000L).put("speed", 0.5).put("crewSize", 10));
+        mockMvc.perform(post("/rest/ships")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content(ship))
+                .andExpect(status().isOk());
+
+        byte[] exported = mockMvc.perform(get("/rest/ships/export?format=CSV&name=Line"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+        JsonNode result = mapper.readTree(mockMvc.perform(post("/rest/ships/import?format=CSV")
+                .content(exported))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+        assertEquals("Экспортированный CSV с переводами строк должен импортироваться обратно.", 1L, result.get("imported").asLong());
+
+        JsonNode ships = mapper.readTree(mockMvc.perform(get("/rest/ships?name=Line"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+        assertEquals("Неверное количество кораблей после повторного импорта.", 2, ships.size());
+        for (JsonNode imported : ships) {
+            assertEquals("Имя с переводами строк должно сохраняться при экспорте и импорте CSV.", name, imported.get("name").asText());
+        }
+    }
+
+    //test6
+    @Test
+    public void csvMalformedHeaderIsBadRequestTest() throws Exception {
+        String body = "planet,\"name,shipType,prodDate,speed,crewSize\n"
+                + "Earth,Import first,MERCHANT,32676991200000,0.5,100\n";
+
+        mockMvc.perform(post("/rest/ships/import?format=CSV")
+                .content(body))
+                .andExpect(status().isBadRequest());
+    }
+
+    private long feedPublished() throws Exception {
+        return mapper.readTree(mockMvc.perform(get("/rest/admin/feed"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString()).get("published").asLong();
+    }
+}
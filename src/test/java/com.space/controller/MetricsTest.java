@@ -0,0 +1,51 @@
+package com.space.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+
+import static org.springframework.test.util.AssertionErrors.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class MetricsTest extends AbstractTest {
+
+    private ObjectMapper mapper = new ObjectMapper();
+
+    //test1
+    @Test
+    public void metricsJsonTest() throws Exception {
+        mockMvc.perform(get("/rest/ships"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/rest/ships/999"))
+                .andExpect(status().isNotFound());
+
+        JsonNode metrics = mapper.readTree(mockMvc.perform(get("/rest/admin/metrics"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+
+        JsonNode list = metrics.path("ENDPOINT").path("GET /rest/ships");
+        assertTrue("Не учтен запрос списка кораблей.", list.path("count").asLong() >= 1);
+        JsonNode single = metrics.path("ENDPOINT").path("GET /rest/ships/{id}");
+        assertTrue("Не учтена ошибка при запросе несуществующего корабля.", single.path("errors").asLong() >= 1);
+        JsonNode findById = metrics.path("REPOSITORY").path("ShipRepository.findById");
+        assertTrue("Не учтен вызов репозитория.", findById.path("count").asLong() >= 1);
+    }
+
+    //test2
+    @Test
+    public void metricsPrometheusTest() throws Exception {
+        mockMvc.perform(get("/rest/ships/count"))
+                .andExpect(status().isOk());
+
+        String metrics = mockMvc.perform(get("/rest/admin/metrics/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertTrue("Нет гистограммы запросов в формате Prometheus.",
+                metrics.contains("# TYPE cosmoport_http_request_seconds histogram"));
+        assertTrue("Не учтен запрос количества кораблей.",
+                metrics.contains("cosmoport_http_request_seconds_count{endpoint=\"GET /rest/ships/count\"}"));
+        assertTrue("Нет бакета +Inf.", metrics.contains("le=\"+Inf\""));
+    }
+}
@@ -0,0 +1,88 @@
+package com.space.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.space.controller.utils.ShipInfoTest;
+import com.space.controller.utils.SqlStatementCounter;
+import com.space.controller.utils.TestsHelper;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class PatchShipTest extends AbstractTest {
+
+    private TestsHelper testsHelper = new TestsHelper();
+    private ObjectMapper mapper = new ObjectMapper();
+
+    //test1
+    @Test
+    public void patchShipNotExistTest() throws Exception {
+        mockMvc.perform(patch("/rest/ships/415")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content("{\"name\": \"Renamed\"}"))
+                .andExpect(status().isNotFound());
+    }
+
+    //test2
+    @Test
+    public void patchShipInvalidParamsTest() throws Exception {
+        mockMvc.perform(patch("/rest/ships/1")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content("{\"crewSize\": 10000}"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(patch("/rest/ships/1")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content("{}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    //test3
+    @Test
+    public void patchShipWithoutRatingInputsTest() throws Exception {
+        SqlStatementCounter counter = new SqlStatementCounter(context.getBean(EntityManagerFactory.class));
+        ShipInfoTest expected = testsHelper.getShipInfosById(1);
+        expected.name = "Renamed";
+        expected.crewSize = 100;
+
+        counter.reset();
+        mockMvc.perform(patch("/rest/ships/1")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content("{\"name\": \"Renamed\", \"crewSize\": 100}"))
+                .andExpect(status().isOk());
+        assertEquals("Неверное количество SQL-запросов при запросе PATCH /rest/ships/{id} без изменения рейтинга", 1L, counter.count());
+
+        assertEquals("Вернулся неправильный объект после PATCH /rest/ships/{id}", expected, getShip(1));
+    }
+
+    //test4
+    @Test
+    public void patchShipSpeedRecomputesRatingTest() throws Exception {
+        SqlStatementCounter counter = new SqlStatementCounter(context.getBean(EntityManagerFactory.class));
+        ShipInfoTest expected = testsHelper.getShipInfosById(1);
+        expected.speed = 0.5;
+        expected.rating = 0.8;
+
+        counter.reset();
+        mockMvc.perform(patch("/rest/ships/1")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content("{\"speed\": 0.5}"))
+                .andExpect(status().isOk());
+        assertEquals("Неверное количество SQL-запросов при запросе PATCH /rest/ships/{id} с изменением рейтинга", 2L, counter.count());
+
+        assertEquals("Вернулся неправильный объект после PATCH /rest/ships/{id}", expected, getShip(1));
+    }
+
+    private ShipInfoTest getShip(long id) throws Exception {
+        String contentAsString = mockMvc.perform(get("/rest/ships/" + id)
+                .accept(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return mapper.readValue(contentAsString, ShipInfoTest.class);
+    }
+}
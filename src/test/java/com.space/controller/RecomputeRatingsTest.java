@@ -0,0 +1,131 @@
+package com.space.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.space.controller.utils.ShipInfoTest;
+import com.space.controller.utils.TestsHelper;
+import com.space.service.RatingRecalculation;
+import com.space.service.ShipService;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class RecomputeRatingsTest extends AbstractTest {
+
+    private TestsHelper testsHelper = new TestsHelper();
+    private ObjectMapper mapper = new ObjectMapper();
+
+    //test1
+    @Test
+    public void recomputeRatingsInvalidYearTest() throws Exception {
+        mockMvc.perform(post("/rest/admin/ratings/recompute?year=100"))
+                .andExpect(status().isBadRequest());
+    }
+
+    //test2
+    @Test
+    public void recomputeRatingsTest() throws Exception {
+        try {
+            mockMvc.perform(post("/rest/admin/ratings/recompute?year=3020"))
+                    .andExpect(status().isOk());
+            JsonNode progress = awaitCompletion();
+
+            assertEquals("Неверное количество пересчитанных кораблей.",
+                    (long) testsHelper.getAllShips().size(), progress.get("processed").asLong());
+
+            String contentAsString = mockMvc.perform(get("/rest/ships/1"))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            ShipInfoTest actual = mapper.readValue(contentAsString, ShipInfoTest.class);
+            assertEquals("Неверный рейтинг корабля после пересчета рейтингов.", 1.26, actual.rating);
+
+            ShipService shipService = context.getBean(ShipService.class);
+            shipService.setRatingYear(ShipService.MAX_PROD_YEAR);
+            context.getBean(RatingRecalculation.class).afterSingletonsInstantiated();
+            assertEquals("Год пересчета рейтингов не сохранился между перезапусками.", 3020, shipService.getRatingYear());
+        } finally {
+            mockMvc.perform(post("/rest/admin/ratings/recompute?year=3019"))
+                    .andExpect(status().isOk());
+            awaitCompletion();
+        }
+    }
+
+    //test3
+    @Test
+    public void recomputeRatingsMatchesRatingOnCreateTest() throws Exception {
+        StringJoiner body = new StringJoiner(",", "[", "]");
+        for (int speed = 1; speed < 100; speed++) {
+            for (int year = 2800; year <= 3019; year += 7) {
+                long prodDate = LocalDate.of(year, 7, 1).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+                body.add(String.format("{\"name\":\"Round\",\"planet\":\"Earth\",\"shipType\":\"MERCHANT\","
+                        + "\"prodDate\":%d,\"isUsed\":%b,\"speed\":0.%02d,\"crewSize\":10}", prodDate, year % 2 == 0, speed));
+            }
+        }
+        mockMvc.perform(post("/rest/ships/batch")
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .content(body.toString()))
+                .andExpect(status().isOk());
+        Map<Long, Double> created = exportRatings();
+
+        mockMvc.perform(post("/rest/admin/ratings/recompute?year=3019"))
+                .andExpect(status().isOk());
+        awaitCompletion();
+
+        Map<Long, Double> recomputed = exportRatings();
+        assertEquals("Не все корабли созданы.", 99 * 32, created.size());
+        for (Map.Entry<Long, Double> entry : created.entrySet()) {
+            assertEquals("Рейтинг корабля " + entry.getKey() + " после пересчета отличается от рейтинга при создании.",
+                    entry.getValue(), recomputed.get(entry.getKey()));
+        }
+    }
+
+    //test4
+    @Test
+    public void recomputeRatingsBeforeLastProductionYearTest() throws Exception {
+        mockMvc.perform(post("/rest/admin/ratings/recompute?year=2900"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/rest/admin/ratings/recompute?year=3018"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private Map<Long, Double> exportRatings() throws Exception {
+        String ndjson = mockMvc.perform(get("/rest/ships/export"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        Map<Long, Double> ratings = new HashMap<>();
+        for (String line : ndjson.split("\n")) {
+            if (!line.isEmpty()) {
+                JsonNode ship = mapper.readTree(line);
+                if ("Round".equals(ship.get("name").asText())) {
+                    ratings.put(ship.get("id").asLong(), ship.get("rating").asDouble());
+                }
+            }
+        }
+        return ratings;
+    }
+
+    private JsonNode awaitCompletion() throws Exception {
+        for (int i = 0; i < 500; i++) {
+            JsonNode progress = mapper.readTree(mockMvc.perform(get("/rest/admin/ratings"))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+            if (!"RUNNING".equals(progress.get("state").asText())) {
+                assertEquals("Пересчет рейтингов завершился с ошибкой: " + progress.get("error"),
+                        "COMPLETED", progress.get("state").asText());
+                return progress;
+            }
+            Thread.sleep(20);
+        }
+        throw new AssertionError("Пересчет рейтингов не завершился вовремя.");
+    }
+}
@@ -0,0 +1,93 @@
+package com.space.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.space.controller.utils.ShipInfoTest;
+import com.space.controller.utils.TestsHelper;
+import com.space.model.Ship;
+import com.space.model.ShipType;
+import com.space.repository.ShipRepository;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class SearchShipsTest extends AbstractTest {
+
+    private TestsHelper testsHelper = new TestsHelper();
+    private ObjectMapper mapper = new ObjectMapper();
+
+    public static class ShipPageInfo {
+        public List<ShipInfoTest> ships;
+        public long count;
+    }
+
+    //test1
+    @Test
+    public void searchWithoutFiltersReturnsFirstPageAndTotal() throws Exception {
+        ResultActions resultActions = mockMvc.perform(get("/rest/ships/search")
+                .accept(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isOk());
+
+        MvcResult result = resultActions.andReturn();
+        ShipPageInfo actual = mapper.readValue(result.getResponse().getContentAsString(), ShipPageInfo.class);
+
+        assertEquals("Возвращается не правильный список при запросе GET /rest/ships/search.",
+                testsHelper.getShipInfosByPage(0, 3, testsHelper.getAllShips()), actual.ships);
+        assertEquals("Возвращается не правильное количество при запросе GET /rest/ships/search.",
+                (long) testsHelper.getAllShips().size(), actual.count);
+    }
+
+    //test2
+    @Test
+    public void searchWithFiltersShipTypeOrderRatingPageNumber() throws Exception {
+        ResultActions resultActions = mockMvc.perform(get("/rest/ships/search?shipType=TRANSPORT&order=RATING&pageNumber=1&pageSize=4")
+                .accept(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isOk());
+
+        MvcResult result = resultActions.andReturn();
+        ShipPageInfo actual = mapper.readValue(result.getResponse().getContentAsString(), ShipPageInfo.class);
+        List<ShipInfoTest> filtered = testsHelper.getShipInfosByOrder(ShipOrder.RATING,
+                testsHelper.getShipInfosByShipType(ShipType.TRANSPORT, testsHelper.getAllShips()));
+
+        assertEquals("Возвращается не правильный список при запросе GET /rest/ships/search с параметрами shipType, order и pageNumber.",
+                testsHelper.getShipInfosByPage(1, 4, filtered), actual.ships);
+        assertEquals("Возвращается не правильное количество при запросе GET /rest/ships/search с параметрами shipType, order и pageNumber.",
+                (long) filtered.size(), actual.count);
+    }
+
+    //test3
+    @Test
+    public void searchCountsInsideTheSnapshotTest() throws Exception {
+        // a row the in-memory counters never heard about
+        new TransactionTemplate(context.getBean(PlatformTransactionManager.class)).execute(status -> {
+            Ship ship = new Ship();
+            ship.setName("Unannounced");
+            ship.setPlanet("Earth");
+            ship.setShipType(ShipType.TRANSPORT);
+            ship.setProdDate(new Date(32998274577071L));
+            ship.setUsed(false);
+            ship.setSpeed(0.8);
+            ship.setCrewSize(14);
+            ship.setRating(1.0);
+            return context.getBean(ShipRepository.class).save(ship);
+        });
+
+        MvcResult result = mockMvc.perform(get("/rest/ships/search?shipType=TRANSPORT&pageSize=100")
+                .accept(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isOk())
+                .andReturn();
+        ShipPageInfo actual = mapper.readValue(result.getResponse().getContentAsString(), ShipPageInfo.class);
+
+        assertEquals("Количество и страница GET /rest/ships/search должны читаться из одного снимка.",
+                (long) actual.ships.size(), actual.count);
+    }
+}
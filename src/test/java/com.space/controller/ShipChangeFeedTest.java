@@ -0,0 +1,152 @@
+package com.space.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.space.controller.utils.TestsHelper;
+import com.space.service.ShipChangeFeed;
+import com.space.service.ShipEvent;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.util.AssertionErrors.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class ShipChangeFeedTest extends AbstractTest {
+
+    private ObjectMapper mapper = new ObjectMapper();
+
+    //test1
+    @Test
+    public void feedPushesCommittedChangesTest() throws Exception {
+        MvcResult stream = subscribe(get("/rest/ships/changes"));
+        try {
+            mockMvc.perform(post("/rest/ships")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestsHelper.NORMAL_JSON))
+                    .andExpect(status().isOk());
+            mockMvc.perform(delete("/rest/ships/1"))
+                    .andExpect(status().isOk());
+
+            String events = await(stream, "event:deleted\ndata:{\"id\":1}");
+            assertTrue("Поток изменений не содержит создания корабля.", events.contains("event:created"));
+            assertTrue("Поток изменений не содержит данных корабля.", events.contains("\"name\":\"123456789\""));
+        } finally {
+            stream.getRequest().getAsyncContext().complete();
+        }
+    }
+
+    //test2
+    @Test
+    public void feedResumesFromLastEventIdTest() throws Exception {
+        long lastEventId = lastEventId();
+        mockMvc.perform(delete("/rest/ships/2"))
+                .andExpect(status().isOk());
+
+        MvcResult resumed = subscribe(get("/rest/ships/changes").header("Last-Event-ID", lastEventId));
+        try {
+            String events = await(resumed, "event:deleted");
+            assertTrue("Пропущенное событие не было повторено.", events.contains("id:" + (lastEventId + 1)));
+        } finally {
+            resumed.getRequest().getAsyncContext().complete();
+        }
+
+        MvcResult stale = subscribe(get("/rest/ships/changes?lastEventId=1"));
+        try {
+            await(stale, "event:reset");
+        } finally {
+            stale.getRequest().getAsyncContext().complete();
+        }
+    }
+
+    //test3
+    @Test
+    public void stalledSubscriberDoesNotBlockOthersTest() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger received = new AtomicInteger();
+        AtomicInteger emitters = new AtomicInteger();
+        ShipChangeFeed feed = new ShipChangeFeed(100, 256, 1, 1, 0, 200) {
+            @Override
+            protected SseEmitter newEmitter(long timeoutMillis) {
+                boolean stalled = emitters.getAndIncrement() == 0;
+                return new SseEmitter(timeoutMillis) {
+                    @Override
+                    public void send(SseEventBuilder builder) throws IOException {
+                        if (!stalled) {
+                            received.incrementAndGet();
+                            return;
+                        }
+                        try {
+                            release.await();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        throw new IOException("Client went away");
+                    }
+                };
+            }
+        };
+        try {
+            feed.subscribe(null);
+            feed.onShipEvent(ShipEvent.deleted(1L, null));
+            Thread.sleep(50);
+            feed.subscribe(null);
+            for (long id = 2; id <= 300; id++) {
+                feed.onShipEvent(ShipEvent.deleted(id, null));
+                Thread.sleep(1);
+            }
+
+            long deadline = System.currentTimeMillis() + 10000;
+            while (received.get() < 299 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals("Живой подписчик не получил события из-за зависшего.", 299, received.get());
+            JsonNode stats = new ObjectMapper()
+                    .setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY)
+                    .valueToTree(feed.stats());
+            assertEquals("Зависший подписчик не был отключен.", 1L, stats.get("stalled").asLong());
+            assertEquals("Живой подписчик не должен отключаться.", 1, stats.get("subscribers").asInt());
+        } finally {
+            release.countDown();
+            feed.destroy();
+        }
+    }
+
+    private MvcResult subscribe(RequestBuilder request) throws Exception {
+        MockMvc raw = MockMvcBuilders.webAppContextSetup(context).build();
+        MvcResult result = raw.perform(request).andReturn();
+        assertTrue("Поток изменений должен обрабатываться асинхронно.", result.getRequest().isAsyncStarted());
+        return result;
+    }
+
+    private long lastEventId() throws Exception {
+        return mapper.readTree(mockMvc.perform(get("/rest/admin/feed"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString()).get("lastEventId").asLong();
+    }
+
+    private static String await(MvcResult result, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 10000;
+        String content = result.getResponse().getContentAsString();
+        while (!content.contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            content = result.getResponse().getContentAsString();
+        }
+        assertTrue("Поток изменений не получил событие " + expected + ": " + content, content.contains(expected));
+        return content;
+    }
+}
@@ -0,0 +1,138 @@
+package com.space.controller;
+
+import com.space.controller.utils.SqlStatementCounter;
+import com.space.controller.utils.TestsHelper;
+import com.space.model.Ship;
+import com.space.model.ShipType;
+import com.space.repository.ShipRepository;
+import com.space.service.ShipCounters;
+import com.space.service.ShipEvent;
+import org.junit.Test;
+import org.springframework.core.Ordered;
+import org.springframework.http.MediaType;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.Date;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class ShipCountersTest extends AbstractTest {
+
+    private TestsHelper testsHelper = new TestsHelper();
+
+    //test1
+    @Test
+    public void countByShipTypeAndUsedWithoutSqlTest() throws Exception {
+        SqlStatementCounter counter = new SqlStatementCounter(context.getBean(EntityManagerFactory.class));
+        long expected = testsHelper.getShipInfosByIsUsed(true,
+                testsHelper.getShipInfosByShipType(ShipType.MILITARY, testsHelper.getAllShips())).size();
+
+        counter.reset();
+        assertEquals("Неверное количество кораблей по типу и признаку использования.",
+                expected, count("?shipType=MILITARY&isUsed=true"));
+        assertEquals("Подсчет по типу и признаку использования не должен обращаться к базе.", 0L, counter.count());
+    }
+
+    //test2
+    @Test
+    public void countersFollowWritesTest() throws Exception {
+        long military = testsHelper.getShipInfosByShipType(ShipType.MILITARY, testsHelper.getAllShips()).size();
+        long total = testsHelper.getAllShips().size();
+
+        mockMvc.perform(post("/rest/ships")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(TestsHelper.NORMAL_JSON))
+                .andExpect(status().isOk());
+        assertEquals("Счетчик не учел создание корабля.", military + 1, count("?shipType=MILITARY"));
+
+        mockMvc.perform(post("/rest/ships/" + firstNonMilitaryId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"shipType\": \"MILITARY\"}"))
+                .andExpect(status().isOk());
+        assertEquals("Счетчик не учел изменение типа корабля.", military + 2, count("?shipType=MILITARY"));
+
+        mockMvc.perform(delete("/rest/ships/1"))
+                .andExpect(status().isOk());
+        assertEquals("Счетчик не учел удаление корабля.", total, count(""));
+    }
+
+    //test3
+    @Test
+    public void countersFollowBulkWritesWithoutSqlTest() throws Exception {
+        SqlStatementCounter counter = new SqlStatementCounter(context.getBean(EntityManagerFactory.class));
+        long military = testsHelper.getShipInfosByShipType(ShipType.MILITARY, testsHelper.getAllShips()).size();
+        long merchant = testsHelper.getShipInfosByShipType(ShipType.MERCHANT, testsHelper.getAllShips()).size();
+        long total = testsHelper.getAllShips().size();
+
+        mockMvc.perform(post("/rest/ships/bulk?shipType=MERCHANT")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"shipType\": \"MILITARY\"}"))
+                .andExpect(status().isOk());
+        counter.reset();
+        assertEquals("Счетчик не учел массовое изменение типа кораблей.", military + merchant, count("?shipType=MILITARY"));
+        assertEquals("Счетчик не должен пересчитываться после массового изменения.", 0L, counter.count());
+
+        mockMvc.perform(delete("/rest/ships?shipType=MILITARY"))
+                .andExpect(status().isOk());
+        counter.reset();
+        assertEquals("Счетчик не учел массовое удаление кораблей.", total - military - merchant, count(""));
+        assertEquals("Счетчик не должен пересчитываться после массового удаления.", 0L, counter.count());
+    }
+
+    //test4
+    @Test
+    public void reconcileBeforeEventDeliveryIsNotDoubleCountedTest() throws Exception {
+        long military = testsHelper.getShipInfosByShipType(ShipType.MILITARY, testsHelper.getAllShips()).size();
+        ShipCounters counters = context.getBean(ShipCounters.class);
+        ShipRepository shipRepository = context.getBean(ShipRepository.class);
+
+        new TransactionTemplate(context.getBean(PlatformTransactionManager.class)).execute(status -> {
+            // the scan sees the committed row before its after-commit event reaches the counters
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    counters.reconcile();
+                }
+
+                @Override
+                public int getOrder() {
+                    return Ordered.HIGHEST_PRECEDENCE;
+                }
+            });
+            Ship ship = new Ship();
+            ship.setName("Race");
+            ship.setPlanet("Earth");
+            ship.setShipType(ShipType.MILITARY);
+            ship.setProdDate(new Date(32998274577071L));
+            ship.setUsed(false);
+            ship.setSpeed(0.8);
+            ship.setCrewSize(14);
+            ship.setRating(1.0);
+            context.publishEvent(ShipEvent.created(shipRepository.save(ship)));
+            return null;
+        });
+
+        assertEquals("Изменение, попавшее в пересчет счетчиков, учтено дважды.", military + 1, count("?shipType=MILITARY"));
+    }
+
+    private long firstNonMilitaryId() {
+        return testsHelper.getAllShips().stream()
+                .filter(ship -> ship.shipType != ShipType.MILITARY)
+                .mapToLong(ship -> ship.id)
+                .min().getAsLong();
+    }
+
+    private long count(String query) throws Exception {
+        return Long.parseLong(mockMvc.perform(get("/rest/ships/count" + query))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+    }
+}
@@ -0,0 +1,62 @@
+package com.space.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.space.controller.utils.ShipInfoTest;
+import com.space.controller.utils.SqlStatementCounter;
+import com.space.controller.utils.TestsHelper;
+import com.space.model.ShipType;
+import org.junit.Test;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class ShipStatsTest extends AbstractTest {
+
+    private TestsHelper testsHelper = new TestsHelper();
+    private ObjectMapper mapper = new ObjectMapper();
+
+    //test1
+    @Test
+    public void statsByShipTypeWithFilterTest() throws Exception {
+        SqlStatementCounter counter = new SqlStatementCounter(context.getBean(EntityManagerFactory.class));
+        counter.reset();
+        JsonNode stats = mapper.readTree(mockMvc.perform(get("/rest/ships/stats?isUsed=true&groupBy=SHIP_TYPE"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+        assertEquals("Неверное количество SQL-запросов при запросе GET /rest/ships/stats", 1L, counter.count());
+
+        List<ShipInfoTest> used = testsHelper.getShipInfosByIsUsed(true, testsHelper.getAllShips());
+        for (JsonNode group : stats) {
+            List<ShipInfoTest> ships = testsHelper.getShipInfosByShipType(
+                    ShipType.valueOf(group.get("group").asText()), used);
+            assertEquals("Неверное количество кораблей в группе " + group.get("group").asText(),
+                    (long) ships.size(), group.get("count").asLong());
+            assertEquals("Неверная максимальная скорость в группе " + group.get("group").asText(),
+                    ships.stream().mapToDouble(ship -> ship.speed).max().getAsDouble(), group.get("maxSpeed").asDouble());
+            assertEquals("Неверный минимальный экипаж в группе " + group.get("group").asText(),
+                    ships.stream().mapToInt(ship -> ship.crewSize).min().getAsInt(), group.get("minCrewSize").asInt());
+        }
+    }
+
+    //test2
+    @Test
+    public void statsByYearCoversFleetTest() throws Exception {
+        JsonNode stats = mapper.readTree(mockMvc.perform(get("/rest/ships/stats?groupBy=YEAR"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+
+        long total = 0;
+        int previousYear = 0;
+        for (JsonNode group : stats) {
+            assertEquals("Группы по году производства не упорядочены.", true, group.get("group").asInt() > previousYear);
+            previousYear = group.get("group").asInt();
+            total += group.get("count").asLong();
+        }
+        assertEquals("Сумма по группам не совпадает с размером флота.", (long) testsHelper.getAllShips().size(), total);
+    }
+}
@@ -0,0 +1,61 @@
+package com.space.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.space.config.SlowQueryLog;
+import org.junit.Test;
+
+import javax.sql.DataSource;
+
+import static org.springframework.test.util.AssertionErrors.assertEquals;
+import static org.springframework.test.util.AssertionErrors.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class SlowQueryLogTest extends AbstractTest {
+
+    private ObjectMapper mapper = new ObjectMapper();
+
+    //test1
+    @Test
+    public void slowQueryAttributionTest() throws Exception {
+        try {
+            mockMvc.perform(post("/rest/admin/slow-queries/threshold?millis=0"))
+                    .andExpect(status().isOk());
+            mockMvc.perform(delete("/rest/admin/slow-queries"))
+                    .andExpect(status().isOk());
+
+            JsonNode ships = mapper.readTree(mockMvc.perform(get("/rest/ships?shipType=MILITARY&isUsed=false&pageSize=100"))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+
+            JsonNode stats = mapper.readTree(mockMvc.perform(get("/rest/admin/slow-queries"))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+            JsonNode entry = null;
+            for (JsonNode candidate : stats.get("top")) {
+                if (candidate.get("origin").asText().startsWith("ShipRepository.findByFilter(filter[shipType,isUsed]")) {
+                    entry = candidate;
+                }
+            }
+            assertNotNull("Запрос поиска не попал в журнал медленных запросов.", entry);
+            assertEquals("Неверное количество строк в журнале медленных запросов.",
+                    (long) ships.size(), entry.get("rows").asLong());
+            assertEquals("Неверные параметры запроса в журнале медленных запросов.",
+                    true, entry.get("parameters").toString().contains("MILITARY"));
+        } finally {
+            mockMvc.perform(post("/rest/admin/slow-queries/threshold?millis=500"))
+                    .andExpect(status().isOk());
+        }
+    }
+
+    //test2
+    @Test
+    public void disabledLogLeavesDataSourceUnwrappedTest() {
+        DataSource dataSource = context.getBean(DataSource.class);
+        assertEquals("Отключённый журнал медленных запросов не должен оборачивать DataSource.",
+                true, new SlowQueryLog(-1, 20, 60000).wrap(dataSource) == dataSource);
+    }
+}
@@ -14,6 +14,22 @@ CREATE TABLE ship
     PRIMARY KEY (id)
 );
 
+CREATE INDEX ix_ship_type_prod_date ON ship (shipType, prodDate);
+CREATE INDEX ix_ship_type_speed ON ship (shipType, speed);
+CREATE INDEX ix_ship_used_rating ON ship (isUsed, rating);
+CREATE INDEX ix_ship_speed ON ship (speed, id);
+CREATE INDEX ix_ship_prod_date ON ship (prodDate, id);
+CREATE INDEX ix_ship_rating ON ship (rating, id);
+
+DROP TABLE IF EXISTS setting;
+
+CREATE TABLE setting
+(
+    name         VARCHAR(50)  NOT NULL,
+    settingValue VARCHAR(255) NULL,
+    PRIMARY KEY (name)
+);
+
 INSERT INTO ship(name, planet, shipType, prodDate, isUsed, speed, crewSize, rating)
 VALUES ('Orion III', 'Mars', 'MERCHANT', '2995-01-01', true, 0.82, 617, 1.31)
      , ('Daedalus', 'Jupiter', 'MERCHANT', '3001-01-01', true, 0.94, 1619, 1.98)